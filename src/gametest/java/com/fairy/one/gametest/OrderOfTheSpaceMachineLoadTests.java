@@ -0,0 +1,129 @@
+package com.fairy.one.gametest;
+
+import com.fairy.one.One;
+import com.fairy.one.block.ModBlocks;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineManager;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+
+// Worst case machine farms, run by the gameTestServer run. Each test samples how long the machines of
+// the test level take per tick and fails above the budgets set with the one.gametest.* properties.
+// Every test is its own batch so farms are never measured together. The machines run the test recipe
+// one_gametest:load_test, end stone into diamonds, which only ships with the gametest source set.
+@GameTestHolder(One.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class OrderOfTheSpaceMachineLoadTests {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String TEMPLATE = "empty_48";
+    private static final int WARMUP_TICKS = 40;
+    private static final int SAMPLE_TICKS = 200;
+    // Leaves time for the activation queue to start every machine before the warmup ends
+    private static final int TIMEOUT = WARMUP_TICKS + SAMPLE_TICKS + 400;
+
+    // Machines sit every other block, so they don't form arrays and there is room for a hopper above
+    private static final int SPACING = 2;
+    private static final int ROW = 22;
+
+    private enum Layout {
+        // Empty machines
+        IDLE,
+        // Crafting for the whole test, the hopper refills the input
+        HOPPER_FED,
+        // A matching input but no room for the diamonds
+        FULL_OUTPUT
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_idle_1k")
+    public static void idle1k(GameTestHelper helper) {
+        run(helper, 1_000, Layout.IDLE);
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_idle_10k")
+    public static void idle10k(GameTestHelper helper) {
+        run(helper, 10_000, Layout.IDLE);
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_hopper_fed_1k")
+    public static void hopperFed1k(GameTestHelper helper) {
+        run(helper, 1_000, Layout.HOPPER_FED);
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_hopper_fed_10k")
+    public static void hopperFed10k(GameTestHelper helper) {
+        run(helper, 10_000, Layout.HOPPER_FED);
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_full_output_1k")
+    public static void fullOutput1k(GameTestHelper helper) {
+        run(helper, 1_000, Layout.FULL_OUTPUT);
+    }
+
+    @GameTest(template = TEMPLATE, timeoutTicks = TIMEOUT, batch = "one_load_full_output_10k")
+    public static void fullOutput10k(GameTestHelper helper) {
+        run(helper, 10_000, Layout.FULL_OUTPUT);
+    }
+
+    private static void run(GameTestHelper helper, int machines, Layout layout) {
+        for (int i = 0; i < machines; i++) {
+            BlockPos pos = new BlockPos(i % ROW * SPACING, i / (ROW * ROW) * SPACING + 1, i / ROW % ROW * SPACING);
+            helper.setBlock(pos, ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get());
+
+            if (layout == Layout.HOPPER_FED) {
+                helper.setBlock(pos.above(), Blocks.HOPPER);
+                if (helper.getBlockEntity(pos.above()) instanceof HopperBlockEntity hopper) {
+                    hopper.setItem(0, new ItemStack(Items.END_STONE, 64));
+                }
+            } else if (layout == Layout.FULL_OUTPUT
+                    && helper.getBlockEntity(pos) instanceof OrderOfTheSpaceMachineBlockEntity machine) {
+                machine.getInventory().setStackInSlot(0, new ItemStack(Items.END_STONE, 64));
+                machine.getInventory().setStackInSlot(3, new ItemStack(Items.DIAMOND, 64));
+            }
+        }
+
+        OrderOfTheSpaceMachineManager manager = OrderOfTheSpaceMachineManager.get(helper.getLevel());
+        long[] samples = new long[SAMPLE_TICKS];
+        int[] tick = {0};
+        int[] sample = {0};
+        helper.onEachTick(() -> {
+            // Sampling starts after the warmup, once no machine is waiting to be activated
+            if (tick[0] < WARMUP_TICKS || manager.getQueuedActivations() > 0) {
+                tick[0]++;
+                return;
+            }
+            if (sample[0] < SAMPLE_TICKS) {
+                samples[sample[0]++] = manager.getLastTickNanos();
+                if (sample[0] == SAMPLE_TICKS) {
+                    report(helper, machines, layout, samples);
+                }
+            }
+        });
+    }
+
+    private static void report(GameTestHelper helper, int machines, Layout layout, long[] samples) {
+        Arrays.sort(samples);
+        long average = Arrays.stream(samples).sum() / SAMPLE_TICKS / 1000;
+        long p99 = samples[(int) Math.ceil(SAMPLE_TICKS * 0.99) - 1] / 1000;
+        long averageBudget = Long.getLong("one.gametest.averageBudgetMicros", 2000);
+        long p99Budget = Long.getLong("one.gametest.p99BudgetMicros", 5000);
+
+        String result = machines + " machines, " + layout + ": average " + average + "us (budget " + averageBudget
+                + "us), p99 " + p99 + "us (budget " + p99Budget + "us)";
+        if (average > averageBudget || p99 > p99Budget) {
+            helper.fail(result);
+        }
+        LOGGER.info(result);
+        helper.succeed();
+    }
+}
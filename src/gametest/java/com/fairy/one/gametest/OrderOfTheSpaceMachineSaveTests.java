@@ -0,0 +1,47 @@
+package com.fairy.one.gametest;
+
+import com.fairy.one.One;
+import com.fairy.one.block.ModBlocks;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+// Saving space machines, run by the gameTestServer run
+@GameTestHolder(One.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class OrderOfTheSpaceMachineSaveTests {
+    private static final String TEMPLATE = "empty_48";
+
+    // An inventory change queues a snapshot, the manager publishes it before the autosave and a worker
+    // encodes it, after which saving hands that encoding over instead of encoding the stacks again
+    @GameTest(template = TEMPLATE)
+    public static void saveUsesWorkerSnapshot(GameTestHelper helper) {
+        BlockPos pos = new BlockPos(1, 1, 1);
+        helper.setBlock(pos, ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get());
+        OrderOfTheSpaceMachineBlockEntity machine = (OrderOfTheSpaceMachineBlockEntity) helper.getBlockEntity(pos);
+        OrderOfTheSpaceMachineManager manager = OrderOfTheSpaceMachineManager.get(helper.getLevel());
+
+        // Dirt isn't the input of any recipe, so the machine stays asleep and the stacks keep matching the snapshot
+        machine.getInventory().setStackInSlot(0, new ItemStack(Items.DIRT, 5));
+        helper.assertTrue(manager.getQueuedSnapshots() > 0, "The inventory change didn't queue a snapshot");
+        manager.publishQueuedSnapshots();
+        helper.assertTrue(manager.getQueuedSnapshots() == 0, "Snapshots are still queued after publishing them");
+
+        // Publishing lets the machine be queued again, or later changes would never get a snapshot
+        machine.getInventory().setStackInSlot(0, new ItemStack(Items.DIRT, 6));
+        helper.assertTrue(manager.getQueuedSnapshots() > 0, "A change after publishing didn't queue the snapshot again");
+        manager.publishQueuedSnapshots();
+
+        // The worker encodes in the background, so the save is tried again every tick until it is done
+        helper.succeedWhen(() -> {
+            machine.saveWithoutMetadata();
+            helper.assertTrue(machine.wasSavedFromSnapshot(), "The save encoded the inventory itself");
+        });
+    }
+}
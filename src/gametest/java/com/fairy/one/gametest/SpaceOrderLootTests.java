@@ -0,0 +1,52 @@
+package com.fairy.one.gametest;
+
+import com.fairy.one.One;
+import com.fairy.one.enchant.ModEnchantments;
+import com.fairy.one.item.ModItems;
+import com.fairy.one.loot.SpaceOrderLootModifier;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+// The space drop of the global loot modifier, run by the gameTestServer run
+@GameTestHolder(One.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class SpaceOrderLootTests {
+    private static final String TEMPLATE = "empty_48";
+    // At the 0.1 chance of space_order_drop, no drop in this many breaks is about a one in a billion chance
+    private static final int BREAKS = 200;
+
+    // End stone broken the way destroyBlock does it: the loot gets a copy of the held pickaxe, and the held
+    // one is damaged by mining first. The Space Order level still comes from the player's cached levels.
+    @GameTest(template = TEMPLATE)
+    public static void enchantedToolUsesCachedLevel(GameTestHelper helper) {
+        Player player = helper.makeMockPlayer();
+        ItemStack held = new ItemStack(Items.DIAMOND_PICKAXE);
+        held.enchant(ModEnchantments.SPACE_ORDER.get(), 1);
+        player.setItemInHand(InteractionHand.MAIN_HAND, held);
+        ItemStack tool = held.copy();
+        held.setDamageValue(1);
+
+        BlockPos pos = helper.absolutePos(new BlockPos(1, 1, 1));
+        int before = SpaceOrderLootModifier.getCachedLevelReads();
+        boolean dropped = false;
+        for (int i = 0; i < BREAKS; i++) {
+            for (ItemStack drop : Block.getDrops(Blocks.END_STONE.defaultBlockState(), helper.getLevel(), pos, null, player, tool)) {
+                dropped |= drop.is(ModItems.SPACE.get());
+            }
+        }
+
+        int reads = SpaceOrderLootModifier.getCachedLevelReads() - before;
+        helper.assertTrue(reads == BREAKS, "Only " + reads + " of " + BREAKS + " breaks read the cached level");
+        helper.assertTrue(dropped, "No space dropped in " + BREAKS + " breaks with Space Order");
+        helper.succeed();
+    }
+}
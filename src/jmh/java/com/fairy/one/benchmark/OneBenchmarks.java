@@ -0,0 +1,17 @@
+package com.fairy.one.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+// Shared setup of the benchmarks: vanilla registries are needed for items, ingredients and NBT
+public class OneBenchmarks {
+    private static boolean bootstrapped;
+
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            bootstrapped = true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.fairy.one.benchmark;
+
+import com.fairy.one.One;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipe;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipeIndex;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraftforge.items.ItemStackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeMatchingBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int recipes;
+
+    private RecipeManager recipeManager;
+    private OrderOfTheSpaceMachineRecipe wanted;
+    private SimpleContainer container;
+    private ItemStackHandler handler;
+
+    @Setup
+    public void setup() {
+        OneBenchmarks.bootstrap();
+
+        // Every recipe but the wanted one uses another input, so lookups have to get past all of them
+        List<Item> items = Registry.ITEM.stream().filter(item -> item != Items.AIR && item != Items.DRAGON_EGG).toList();
+        List<Recipe<?>> all = new ArrayList<>();
+        for (int i = 0; i < recipes - 1; i++) {
+            all.add(recipe(i, items.get(i % items.size())));
+        }
+        wanted = recipe(recipes - 1, Items.DRAGON_EGG);
+        all.add(wanted);
+
+        recipeManager = new RecipeManager();
+        recipeManager.replaceRecipes(all);
+
+        container = new SimpleContainer(4);
+        container.setItem(0, new ItemStack(Items.DRAGON_EGG, 64));
+        handler = new ItemStackHandler(4);
+        handler.setStackInSlot(0, new ItemStack(Items.DRAGON_EGG, 64));
+    }
+
+    private static OrderOfTheSpaceMachineRecipe recipe(int i, Item input) {
+        return new OrderOfTheSpaceMachineRecipe(new ResourceLocation(One.MOD_ID, "benchmark_" + i),
+                new ItemStack(Items.DIAMOND), NonNullList.of(Ingredient.EMPTY, Ingredient.of(input)));
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return wanted.matches(handler);
+    }
+
+    @Benchmark
+    public Optional<OrderOfTheSpaceMachineRecipe> recipeManagerGetRecipeFor() {
+        return recipeManager.getRecipeFor(OrderOfTheSpaceMachineRecipe.Type.INSTANCE, container, null);
+    }
+
+    // What the machine does: the index is built once per RecipeManager
+    @Benchmark
+    public OrderOfTheSpaceMachineRecipe indexFind() {
+        return OrderOfTheSpaceMachineRecipeIndex.of(recipeManager).find(handler);
+    }
+}
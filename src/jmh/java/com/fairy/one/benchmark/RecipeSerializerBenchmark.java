@@ -0,0 +1,70 @@
+package com.fairy.one.benchmark;
+
+import com.fairy.one.One;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipe;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeSerializerBenchmark {
+    private static final ResourceLocation ID = new ResourceLocation(One.MOD_ID, "benchmark");
+
+    private JsonObject json;
+    private OrderOfTheSpaceMachineRecipe recipe;
+    private byte[] network;
+
+    @Setup
+    public void setup() {
+        OneBenchmarks.bootstrap();
+        json = JsonParser.parseString("""
+                {
+                  "type": "one:order_space",
+                  "ingredients": [{"item": "minecraft:end_stone"}],
+                  "output": {"item": "minecraft:diamond", "count": 2}
+                }
+                """).getAsJsonObject();
+        recipe = OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.fromJson(ID, json);
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.toNetwork(buf, recipe);
+        network = new byte[buf.readableBytes()];
+        buf.readBytes(network);
+    }
+
+    @Benchmark
+    public OrderOfTheSpaceMachineRecipe fromJson() {
+        return OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.fromJson(ID, json);
+    }
+
+    @Benchmark
+    public OrderOfTheSpaceMachineRecipe fromNetwork() {
+        return OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.fromNetwork(ID, new FriendlyByteBuf(Unpooled.wrappedBuffer(network)));
+    }
+
+    @Benchmark
+    public int toNetwork() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(network.length));
+        OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.toNetwork(buf, recipe);
+        return buf.writerIndex();
+    }
+}
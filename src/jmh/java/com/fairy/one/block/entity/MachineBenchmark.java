@@ -0,0 +1,169 @@
+package com.fairy.one.block.entity;
+
+import com.fairy.one.One;
+import com.fairy.one.benchmark.OneBenchmarks;
+import com.fairy.one.block.custom.OrderOfTheSpaceMachineBlock;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipe;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.NonNullList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.material.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// In the machine's package to reach its recipe check and craft. A whole tick needs a running ServerLevel,
+// which the GameTest load test covers, here the machine runs without a level on its own recipe manager.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MachineBenchmark {
+    private OrderOfTheSpaceMachineBlockEntity machine;
+    private CompoundTag saved;
+
+    @Setup
+    public void setup() {
+        OneBenchmarks.bootstrap();
+        OrderOfTheSpaceMachineBlock block = new OrderOfTheSpaceMachineBlock(BlockBehaviour.Properties.of(Material.HEAVY_METAL));
+        BlockEntityType<OrderOfTheSpaceMachineBlockEntity> type = BlockEntityType.Builder.of(OrderOfTheSpaceMachineBlockEntity::new, block).build(null);
+        machine = new OrderOfTheSpaceMachineBlockEntity(type, BlockPos.ZERO, block.defaultBlockState());
+
+        machine.getOwnInventory().setStackInSlot(0, new ItemStack(Items.END_STONE, 64));
+        machine.getOwnInventory().setStackInSlot(1, new ItemStack(Items.ENDER_PEARL, 16));
+        machine.getOwnInventory().setStackInSlot(2, new ItemStack(Items.DIAMOND_PICKAXE));
+        machine.getOwnInventory().setStackInSlot(3, new ItemStack(Items.DIAMOND, 32));
+        saved = machine.saveWithoutMetadata();
+    }
+
+    @Benchmark
+    public CompoundTag saveAdditional() {
+        return machine.saveWithoutMetadata();
+    }
+
+    // A sleeping machine, its stacks stay packed
+    @Benchmark
+    public OrderOfTheSpaceMachineBlockEntity loadSleeping() {
+        machine.load(saved);
+        return machine;
+    }
+
+    // An active machine, which decodes its stacks when it is activated to catch up
+    @Benchmark
+    public ItemStack loadActive() {
+        machine.load(saved);
+        return machine.getOwnInventory().getStackInSlot(3);
+    }
+
+    // Batch size of the crafting machine, so craft() makes this many crafts at once
+    private static final int BATCH_SIZE = 16;
+
+    // A machine with its own recipe manager holding one recipe the inventory matches
+    private static OrderOfTheSpaceMachineBlockEntity newCraftingMachine() {
+        OneBenchmarks.bootstrap();
+        OrderOfTheSpaceMachineRecipe recipe = new OrderOfTheSpaceMachineRecipe(new ResourceLocation(One.MOD_ID, "benchmark"),
+                new ItemStack(Items.DIAMOND), NonNullList.of(Ingredient.EMPTY, Ingredient.of(Items.END_STONE),
+                Ingredient.of(Items.ENDER_PEARL), Ingredient.of(Items.DIAMOND_PICKAXE)));
+        RecipeManager recipeManager = new RecipeManager();
+        recipeManager.replaceRecipes(List.of(recipe));
+
+        OrderOfTheSpaceMachineBlock block = new OrderOfTheSpaceMachineBlock(BlockBehaviour.Properties.of(Material.HEAVY_METAL), BATCH_SIZE);
+        BlockEntityType<OrderOfTheSpaceMachineBlockEntity> type = BlockEntityType.Builder.of(OrderOfTheSpaceMachineBlockEntity::new, block).build(null);
+        return new BenchmarkMachine(type, block.defaultBlockState(), recipeManager);
+    }
+
+    // Setting the stacks marks the recipe dirty, like any inventory change
+    private static void fill(OrderOfTheSpaceMachineBlockEntity machine) {
+        machine.getOwnInventory().setStackInSlot(0, new ItemStack(Items.END_STONE, 64));
+        machine.getOwnInventory().setStackInSlot(1, new ItemStack(Items.ENDER_PEARL, 16));
+        machine.getOwnInventory().setStackInSlot(2, new ItemStack(Items.DIAMOND_PICKAXE));
+        machine.getOwnInventory().setStackInSlot(3, ItemStack.EMPTY);
+    }
+
+    // Filled once, so only the first check looks the recipe up
+    @State(Scope.Benchmark)
+    public static class LookupState {
+        OrderOfTheSpaceMachineBlockEntity machine;
+
+        @Setup
+        public void setup() {
+            machine = newCraftingMachine();
+            fill(machine);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CraftState {
+        OrderOfTheSpaceMachineBlockEntity machine;
+
+        @Setup
+        public void setup() {
+            machine = newCraftingMachine();
+        }
+
+        // Crafting uses the inputs up, so every call starts from the same full inventory
+        @Setup(Level.Invocation)
+        public void fill() {
+            MachineBenchmark.fill(machine);
+        }
+    }
+
+    // Recipe read from the cache and the checks on the catalyst and output slot
+    @Benchmark
+    public boolean canRun(LookupState state) {
+        return state.machine.canRun();
+    }
+
+    // The same check right after an inventory change, which looks the recipe up through the index again
+    @Benchmark
+    public boolean canRunAfterChange(CraftState state) {
+        return state.machine.canRun();
+    }
+
+    @Benchmark
+    public int craft(CraftState state) {
+        return state.machine.craft();
+    }
+
+    private static class BenchmarkMachine extends OrderOfTheSpaceMachineBlockEntity {
+        private final RecipeManager recipeManager;
+        private final Random random = new Random(0);
+
+        BenchmarkMachine(BlockEntityType<OrderOfTheSpaceMachineBlockEntity> type, BlockState state, RecipeManager recipeManager) {
+            super(type, BlockPos.ZERO, state);
+            this.recipeManager = recipeManager;
+        }
+
+        @Override
+        RecipeManager getRecipeManager() {
+            return recipeManager;
+        }
+
+        @Override
+        Random getRandom() {
+            return random;
+        }
+    }
+}
@@ -5,11 +5,17 @@ import com.fairy.one.block.entity.ModBlockEntities;
 import com.fairy.one.block.menu.ModMenuTypes;
 import com.fairy.one.block.menu.OrderOfTheSpaceMachineMenu;
 import com.fairy.one.block.recipes.ModRecipes;
+import com.fairy.one.block.renderer.OrderOfTheSpaceMachineRenderer;
 import com.fairy.one.block.screen.OrderOfTheSpaceMachineScreen;
+import com.fairy.one.config.OneClientConfigs;
+import com.fairy.one.config.OneCommonConfigs;
 import com.fairy.one.enchant.ModEnchantments;
 import com.fairy.one.item.ModItems;
+import com.fairy.one.loot.ModLootModifiers;
+import com.fairy.one.profiling.OneJfrEvents;
 import com.mojang.logging.LogUtils;
 import net.minecraft.client.gui.screens.MenuScreens;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderers;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraftforge.common.MinecraftForge;
@@ -17,7 +23,9 @@ import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.InterModComms;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.InterModEnqueueEvent;
@@ -49,6 +57,11 @@ public class One {
 
         ModRecipes.register(eventBus);
 
+        ModLootModifiers.register(eventBus);
+
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, OneClientConfigs.SPEC, "one-client.toml");
+        ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, OneCommonConfigs.SPEC, "one-common.toml");
+
         eventBus.addListener(this::setup);
         eventBus.addListener(this::ClientSetup);
 
@@ -60,9 +73,11 @@ public class One {
         // some preinit code
         LOGGER.info("WELCOME TO ONe !");
         LOGGER.info("DIRT BLOCK >> {}", Blocks.DIRT.getRegistryName());
+        OneJfrEvents.register();
     }
 
     private void ClientSetup(final FMLClientSetupEvent event) {
         MenuScreens.register(ModMenuTypes.ORDER_OF_THE_SPACE_MACHINE_MENU.get(), OrderOfTheSpaceMachineScreen::new);
+        BlockEntityRenderers.register(ModBlockEntities.ORDER_OF_THE_SPACE_MACHINE_BLOCK_ENTITY.get(), OrderOfTheSpaceMachineRenderer::new);
     }
 }
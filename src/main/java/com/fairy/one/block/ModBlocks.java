@@ -27,6 +27,9 @@ public class ModBlocks {
     public static final RegistryObject<Block> ORDER_OF_THE_SPACE_MACHINE = registerBlock("order_of_the_space_machine",
             () -> new OrderOfTheSpaceMachineBlock(BlockBehaviour.Properties.of(Material.HEAVY_METAL).strength(8f).requiresCorrectToolForDrops()), ModCreativeModeTab.ONE_TAB);
 
+    public static final RegistryObject<Block> SUPER_ORDER_OF_THE_SPACE_MACHINE = registerBlock("super_order_of_the_space_machine",
+            () -> new OrderOfTheSpaceMachineBlock(BlockBehaviour.Properties.of(Material.HEAVY_METAL).strength(8f).requiresCorrectToolForDrops(), 8), ModCreativeModeTab.ONE_TAB);
+
     private static <T extends Block> RegistryObject<T> registerBlock(String name, Supplier<T> block, CreativeModeTab tab) {
         RegistryObject<T> toReturn = BLOCKS.register(name, block);
         registerBlockItem(name, toReturn, tab);
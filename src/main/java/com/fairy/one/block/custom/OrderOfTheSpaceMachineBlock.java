@@ -1,6 +1,5 @@
 package com.fairy.one.block.custom;
 
-import com.fairy.one.block.entity.ModBlockEntities;
 import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerPlayer;
@@ -10,13 +9,13 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import net.minecraft.world.level.block.state.properties.DirectionProperty;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.shapes.BooleanOp;
@@ -30,9 +29,24 @@ import java.util.stream.Stream;
 
 public class OrderOfTheSpaceMachineBlock extends BaseEntityBlock {
     public static final DirectionProperty FACING = BlockStateProperties.HORIZONTAL_FACING;
+    // False while the machine can't make progress, it isn't ticked at all in that state
+    public static final BooleanProperty ACTIVE = BooleanProperty.create("active");
+
+    // How many crafts the machine runs per cycle
+    private final int batchSize;
 
     public OrderOfTheSpaceMachineBlock(Properties Properties) {
+        this(Properties, 1);
+    }
+
+    public OrderOfTheSpaceMachineBlock(Properties Properties, int batchSize) {
         super(Properties);
+        this.batchSize = batchSize;
+        this.registerDefaultState(this.stateDefinition.any().setValue(ACTIVE, false));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
     }
 
     private static final VoxelShape SHAPE = Stream.of(
@@ -62,7 +76,7 @@ public class OrderOfTheSpaceMachineBlock extends BaseEntityBlock {
 
     @Override
     protected void createBlockStateDefinition(StateDefinition.Builder<Block, BlockState> pBuilder) {
-        pBuilder.add(FACING);
+        pBuilder.add(FACING, ACTIVE);
     }
 
     @Override
@@ -81,6 +95,24 @@ public class OrderOfTheSpaceMachineBlock extends BaseEntityBlock {
         super.onRemove(pState, pLevel, pPos, pNewState, pIsMoving);
     }
 
+    @Override
+    public void neighborChanged(BlockState pState, Level pLevel, BlockPos pPos, Block pBlock, BlockPos pFromPos, boolean pIsMoving) {
+        super.neighborChanged(pState, pLevel, pPos, pBlock, pFromPos, pIsMoving);
+        if (!pLevel.isClientSide() && pLevel.getBlockEntity(pPos) instanceof OrderOfTheSpaceMachineBlockEntity machine) {
+            machine.neighbourChanged(pFromPos);
+            machine.wakeUp();
+        }
+    }
+
+    // Called when the contents of a neighbouring inventory change, which may have made room for results
+    @Override
+    public void onNeighborChange(BlockState state, LevelReader level, BlockPos pos, BlockPos neighbor) {
+        super.onNeighborChange(state, level, pos, neighbor);
+        if (!level.isClientSide() && level.getBlockEntity(pos) instanceof OrderOfTheSpaceMachineBlockEntity machine) {
+            machine.ejectOutput();
+        }
+    }
+
     @Override
     public InteractionResult use(BlockState pState, Level pLevel, BlockPos pPos, Player pPlayer, InteractionHand pHand, BlockHitResult pHit) {
         if (!pLevel.isClientSide()) {
@@ -100,11 +132,4 @@ public class OrderOfTheSpaceMachineBlock extends BaseEntityBlock {
     public BlockEntity newBlockEntity(BlockPos pPos, BlockState pState) {
         return new OrderOfTheSpaceMachineBlockEntity(pPos, pState);
     }
-
-    @Nullable
-    @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level pLevel, BlockState pState, BlockEntityType<T> pBlockEntityType) {
-        return createTickerHelper(pBlockEntityType, ModBlockEntities.ORDER_OF_THE_SPACE_MACHINE_BLOCK_ENTITY.get(),
-                OrderOfTheSpaceMachineBlockEntity::tick);
-    }
 }
\ No newline at end of file
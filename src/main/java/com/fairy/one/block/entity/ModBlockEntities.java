@@ -15,7 +15,7 @@ public class ModBlockEntities {
     public static final RegistryObject<BlockEntityType<OrderOfTheSpaceMachineBlockEntity>> ORDER_OF_THE_SPACE_MACHINE_BLOCK_ENTITY =
             BLOCK_ENTITIES.register("order_of_the_space_machine_block_entity", () ->
                     BlockEntityType.Builder.of(OrderOfTheSpaceMachineBlockEntity::new,
-                            ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get()).build(null));
+                            ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get(), ModBlocks.SUPER_ORDER_OF_THE_SPACE_MACHINE.get()).build(null));
 
 
     public static void register(IEventBus eventBus) {
@@ -0,0 +1,213 @@
+package com.fairy.one.block.entity;
+
+import com.fairy.one.config.OneCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.items.IItemHandlerModifiable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Adjacent machines working as one: the controller's inventory is the shared buffer of the whole
+// structure and only the controller ticks, crafting for every member at once. Members only forward
+// to it, and always keep their own inventory empty so nothing is lost when the structure changes.
+// Placing a machine only looks at its neighbours, and breaking one only searches the structure
+// again when the removed machine may have been holding two parts of it together.
+public class OrderOfTheSpaceArray {
+    // The shared inventory holds one stack per slot, so a cycle can't make more crafts than a stack holds
+    public static final int MAX_BATCH_SIZE = 64;
+
+    private final Map<BlockPos, OrderOfTheSpaceMachineBlockEntity> members = new HashMap<>();
+    private OrderOfTheSpaceMachineBlockEntity controller;
+    private int batchSize;
+
+    private OrderOfTheSpaceArray(OrderOfTheSpaceMachineBlockEntity controller) {
+        this.controller = controller;
+        add(controller);
+    }
+
+    public OrderOfTheSpaceMachineBlockEntity getController() {
+        return controller;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public int getBatchSize() {
+        return Math.min(batchSize, MAX_BATCH_SIZE);
+    }
+
+    private void add(OrderOfTheSpaceMachineBlockEntity machine) {
+        members.put(machine.getBlockPos(), machine);
+        machine.array = this;
+        batchSize += machine.getOwnBatchSize();
+    }
+
+    // Merges a newly loaded machine with the machines around it
+    static void join(OrderOfTheSpaceMachineBlockEntity machine) {
+        Level level = machine.getLevel();
+        int maxSize = OneCommonConfigs.SPACE_ARRAY_MAX_SIZE.get();
+        if (level == null || maxSize < 2) {
+            return;
+        }
+
+        for (Direction direction : Direction.values()) {
+            BlockPos pos = machine.getBlockPos().relative(direction);
+            // Never load a chunk just to look at a neighbour
+            if (level.isLoaded(pos) && level.getBlockEntity(pos) instanceof OrderOfTheSpaceMachineBlockEntity neighbour
+                    && !neighbour.isRemoved()) {
+                merge(machine, neighbour, maxSize);
+            }
+        }
+    }
+
+    private static void merge(OrderOfTheSpaceMachineBlockEntity a, OrderOfTheSpaceMachineBlockEntity b, int maxSize) {
+        if (a.array != null && a.array == b.array) {
+            return;
+        }
+        int sizeA = a.array == null ? 1 : a.array.size();
+        int sizeB = b.array == null ? 1 : b.array.size();
+        if (sizeA + sizeB > maxSize) {
+            return;
+        }
+
+        OrderOfTheSpaceMachineBlockEntity controllerA = a.controller();
+        OrderOfTheSpaceMachineBlockEntity controllerB = b.controller();
+        boolean emptyA = controllerA.isOwnInventoryEmpty();
+        boolean emptyB = controllerB.isOwnInventoryEmpty();
+
+        // The controller with items keeps them, if both have some the smaller structure has to hand
+        // its items over, and the two stay apart when they don't fit
+        boolean keepA = emptyA != emptyB ? !emptyA : sizeA >= sizeB;
+        OrderOfTheSpaceMachineBlockEntity winner = keepA ? controllerA : controllerB;
+        OrderOfTheSpaceMachineBlockEntity loser = keepA ? controllerB : controllerA;
+        if (!emptyA && !emptyB && !moveInventory(loser, winner)) {
+            return;
+        }
+
+        OrderOfTheSpaceArray array = winner.array != null ? winner.array : new OrderOfTheSpaceArray(winner);
+        if (loser.array == null) {
+            loser.becomeMember();
+            array.add(loser);
+        } else {
+            for (OrderOfTheSpaceMachineBlockEntity member : loser.array.members.values()) {
+                member.becomeMember();
+                array.add(member);
+            }
+        }
+        winner.wakeUp();
+    }
+
+    // Moves everything or nothing
+    private static boolean moveInventory(OrderOfTheSpaceMachineBlockEntity from, OrderOfTheSpaceMachineBlockEntity to) {
+        IItemHandlerModifiable source = from.getOwnInventory();
+        IItemHandlerModifiable target = to.getOwnInventory();
+        for (int i = 0; i < source.getSlots(); i++) {
+            if (!target.insertItem(i, source.getStackInSlot(i), true).isEmpty()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < source.getSlots(); i++) {
+            target.insertItem(i, source.getStackInSlot(i), false);
+            source.setStackInSlot(i, ItemStack.EMPTY);
+        }
+        return true;
+    }
+
+    // Takes a broken or unloaded machine out of its structure, splitting it if needed. Nothing is woken
+    // up: this also runs while chunks unload, and no part has anything new to craft afterwards.
+    static void leave(OrderOfTheSpaceMachineBlockEntity machine) {
+        OrderOfTheSpaceArray array = machine.array;
+        if (array == null) {
+            return;
+        }
+        machine.array = null;
+        array.members.remove(machine.getBlockPos());
+        array.batchSize -= machine.getOwnBatchSize();
+
+        List<OrderOfTheSpaceMachineBlockEntity> neighbours = new ArrayList<>(6);
+        for (Direction direction : Direction.values()) {
+            OrderOfTheSpaceMachineBlockEntity neighbour = array.members.get(machine.getBlockPos().relative(direction));
+            if (neighbour != null) {
+                neighbours.add(neighbour);
+            }
+        }
+
+        boolean wasController = array.controller == machine;
+        if (!wasController && neighbours.size() <= 1) {
+            // A leaf, the rest of the structure is still connected
+            if (array.size() == 1) {
+                array.controller.array = null;
+            }
+            return;
+        }
+        if (neighbours.isEmpty()) {
+            return;
+        }
+
+        array.split(neighbours, wasController);
+    }
+
+    private void split(List<OrderOfTheSpaceMachineBlockEntity> starts, boolean lostController) {
+        Map<BlockPos, OrderOfTheSpaceMachineBlockEntity> remaining = new HashMap<>(members);
+        members.clear();
+        batchSize = 0;
+
+        boolean reused = false;
+        for (OrderOfTheSpaceMachineBlockEntity start : starts) {
+            if (!remaining.containsKey(start.getBlockPos())) {
+                continue;
+            }
+            List<OrderOfTheSpaceMachineBlockEntity> part = collect(start, remaining);
+
+            // The part with the old controller keeps it, the others get one of their members,
+            // which all have an empty inventory
+            boolean hasController = !lostController && part.contains(controller);
+            if (part.size() == 1) {
+                part.get(0).array = null;
+                continue;
+            }
+
+            OrderOfTheSpaceArray array;
+            if (hasController || (lostController && !reused)) {
+                array = this;
+                reused = true;
+                if (lostController) {
+                    controller = part.get(0);
+                }
+            } else {
+                array = new OrderOfTheSpaceArray(part.get(0));
+            }
+            for (OrderOfTheSpaceMachineBlockEntity member : part) {
+                if (!array.members.containsKey(member.getBlockPos())) {
+                    array.add(member);
+                }
+            }
+        }
+    }
+
+    private static List<OrderOfTheSpaceMachineBlockEntity> collect(OrderOfTheSpaceMachineBlockEntity start,
+                                                                 Map<BlockPos, OrderOfTheSpaceMachineBlockEntity> remaining) {
+        List<OrderOfTheSpaceMachineBlockEntity> part = new ArrayList<>();
+        ArrayDeque<OrderOfTheSpaceMachineBlockEntity> queue = new ArrayDeque<>();
+        remaining.remove(start.getBlockPos());
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            OrderOfTheSpaceMachineBlockEntity machine = queue.poll();
+            part.add(machine);
+            for (Direction direction : Direction.values()) {
+                OrderOfTheSpaceMachineBlockEntity neighbour = remaining.remove(machine.getBlockPos().relative(direction));
+                if (neighbour != null) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+        return part;
+    }
+}
@@ -1,13 +1,28 @@
 package com.fairy.one.block.entity;
 
+import com.fairy.one.block.custom.OrderOfTheSpaceMachineBlock;
 import com.fairy.one.block.menu.OrderOfTheSpaceMachineMenu;
 import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipe;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipeIndex;
+import com.fairy.one.config.OneCommonConfigs;
 import com.fairy.one.item.ModItems;
+import com.fairy.one.profiling.OneJfrEvents;
+import com.fairy.one.profiling.OneProfiler;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.Registry;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.network.chat.Component;
-import net.minecraft.network.chat.TextComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.Containers;
 import net.minecraft.world.MenuProvider;
 import net.minecraft.world.SimpleContainer;
@@ -15,43 +30,333 @@ import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ContainerData;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.HopperBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.items.ItemStackHandler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Nonnull;
-import java.util.Optional;
+import java.lang.ref.WeakReference;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 public class OrderOfTheSpaceMachineBlockEntity extends BlockEntity implements MenuProvider {
-    private final ItemStackHandler itemHandler = new ItemStackHandler(4) {
+    private final MachineItemHandler itemHandler = new MachineItemHandler();
+
+    // Saved inventories are only turned back into stacks when something first looks at them, and are
+    // written back as they were if nothing did. Active machines look at them as soon as they are
+    // activated to catch up, so it is sleeping machines that stay packed until used.
+    private class MachineItemHandler extends ItemStackHandler {
+        private byte[] packedSlots;
+        private ListTag packedStacks;
+        private volatile InventorySnapshot snapshot;
+        // Whether the last save reused a snapshot's encoding instead of encoding the stacks itself
+        private boolean savedFromSnapshot;
+
+        MachineItemHandler() {
+            super(4);
+        }
+
         @Override
         protected void onContentsChanged(int slot) {
-            setChanged();
+            if (inventoryBatchDepth > 0) {
+                changedDuringBatch = true;
+            } else {
+                inventoryChanged();
+            }
+        }
+
+        void loadPacked(byte[] slots, ListTag items) {
+            setSize(4);
+            packedSlots = slots;
+            packedStacks = items;
+            snapshot = null;
+        }
+
+        // Copies the stacks on the server thread and leaves turning them into tags to a worker
+        void publishSnapshot() {
+            if (packedSlots != null) {
+                return;
+            }
+            InventorySnapshot next = new InventorySnapshot(copyStacks());
+            snapshot = next;
+            CompletableFuture.runAsync(next::encode, Util.backgroundExecutor());
+        }
+
+        private ItemStack[] copyStacks() {
+            ItemStack[] copies = new ItemStack[stacks.size()];
+            for (int slot = 0; slot < copies.length; slot++) {
+                copies[slot] = stacks.get(slot).copy();
+            }
+            return copies;
+        }
+
+        // Written as loaded while still packed, otherwise from the latest snapshot
+        void savePacked(CompoundTag tag) {
+            if (packedSlots != null) {
+                tag.putByteArray(INVENTORY_SLOTS_KEY, packedSlots);
+                tag.put(INVENTORY_KEY, packedStacks);
+                savedFromSnapshot = false;
+                return;
+            }
+            // Encoded tags are never changed afterwards, so handing them over is enough. Menus change stacks
+            // in place, so the snapshot is compared with the stacks rather than trusted to be notified of
+            // every change. When it is out of date, or the worker isn't done, the inventory is encoded here.
+            InventorySnapshot current = snapshot;
+            EncodedInventory encoded = current != null && current.matches(stacks) ? current.encoded : null;
+            savedFromSnapshot = encoded != null;
+            if (encoded == null) {
+                encoded = InventorySnapshot.encode(stacks.toArray(new ItemStack[0]));
+            }
+            tag.putByteArray(INVENTORY_SLOTS_KEY, encoded.slots());
+            tag.put(INVENTORY_KEY, encoded.items());
+        }
+
+        private void decode() {
+            if (packedSlots == null) {
+                return;
+            }
+            byte[] slots = packedSlots;
+            ListTag items = packedStacks;
+            packedSlots = null;
+            packedStacks = null;
+            for (int i = 0; i < slots.length && i < items.size(); i++) {
+                if (slots[i] >= 0 && slots[i] < stacks.size()) {
+                    stacks.set(slots[i], ItemStack.of(items.getCompound(i)));
+                }
+            }
+            // What was loaded is already a valid encoding of the decoded stacks
+            snapshot = new InventorySnapshot(copyStacks(), new EncodedInventory(slots, items));
+        }
+
+        boolean isEmpty() {
+            if (packedSlots != null) {
+                return packedSlots.length == 0;
+            }
+            for (ItemStack stack : stacks) {
+                if (!stack.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Only slots holding something are packed, so this doesn't decode the inventory either
+        boolean isSlotEmpty(int slot) {
+            if (packedSlots == null) {
+                return stacks.get(slot).isEmpty();
+            }
+            for (byte packed : packedSlots) {
+                if (packed == slot) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Item of the first slot without decoding the rest of the inventory
+        Item getFirstItem() {
+            if (packedSlots == null) {
+                return stacks.get(0).getItem();
+            }
+            for (int i = 0; i < packedSlots.length && i < packedStacks.size(); i++) {
+                if (packedSlots[i] == 0) {
+                    ResourceLocation id = ResourceLocation.tryParse(packedStacks.getCompound(i).getString("id"));
+                    return id != null ? Registry.ITEM.get(id) : Items.AIR;
+                }
+            }
+            return Items.AIR;
+        }
+
+        @Override
+        public ItemStack getStackInSlot(int slot) {
+            decode();
+            return super.getStackInSlot(slot);
+        }
+
+        @Override
+        public void setStackInSlot(int slot, ItemStack stack) {
+            decode();
+            super.setStackInSlot(slot, stack);
+        }
+
+        @Override
+        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+            decode();
+            return super.insertItem(slot, stack, simulate);
+        }
+
+        @Override
+        public ItemStack extractItem(int slot, int amount, boolean simulate) {
+            decode();
+            return super.extractItem(slot, amount, simulate);
+        }
+
+        @Override
+        public CompoundTag serializeNBT() {
+            decode();
+            return super.serializeNBT();
+        }
+
+        @Override
+        public void deserializeNBT(CompoundTag nbt) {
+            packedSlots = null;
+            packedStacks = null;
+            snapshot = null;
+            super.deserializeNBT(nbt);
+        }
+    }
+
+    private record EncodedInventory(byte[] slots, ListTag items) { }
+
+    // Private copies of the stacks, encoded off the server thread
+    private static class InventorySnapshot {
+        private final ItemStack[] stacks;
+        volatile EncodedInventory encoded;
+
+        InventorySnapshot(ItemStack[] stacks) {
+            this.stacks = stacks;
+        }
+
+        InventorySnapshot(ItemStack[] stacks, EncodedInventory encoded) {
+            this.stacks = stacks;
+            this.encoded = encoded;
+        }
+
+        // Whether the inventory still holds what the snapshot was taken of
+        boolean matches(List<ItemStack> current) {
+            for (int slot = 0; slot < stacks.length; slot++) {
+                if (!ItemStack.matches(stacks[slot], current.get(slot))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void encode() {
+            encoded = encode(stacks);
+        }
+
+        // Only the slots holding something, as a slot array next to a list of their stacks
+        static EncodedInventory encode(ItemStack[] stacks) {
+            ByteArrayList slots = new ByteArrayList(stacks.length);
+            ListTag items = new ListTag();
+            for (int slot = 0; slot < stacks.length; slot++) {
+                if (!stacks[slot].isEmpty()) {
+                    slots.add((byte) slot);
+                    items.add(stacks[slot].save(new CompoundTag()));
+                }
+            }
+            return new EncodedInventory(slots.toByteArray(), items);
         }
-    };
+    }
+
+    private ItemStack displayedItem = ItemStack.EMPTY;
+    private final AABB renderBoundingBox;
+
+    private int inventoryBatchDepth;
+    private boolean changedDuringBatch;
+
+    private static final int[] INPUT_SLOTS = {0, 1};
+    private static final int[] CATALYST_SLOTS = {2};
+    private static final int[] OUTPUT_SLOTS = {3};
+    private static final int[] ALL_SLOTS = {0, 1, 2, 3};
+
+    private final OrderOfTheSpaceMachineSlotView inputView = new OrderOfTheSpaceMachineSlotView(this, INPUT_SLOTS, true, false);
+    private final OrderOfTheSpaceMachineSlotView catalystView = new OrderOfTheSpaceMachineSlotView(this, CATALYST_SLOTS, true, true);
+    private final OrderOfTheSpaceMachineSlotView outputView = new OrderOfTheSpaceMachineSlotView(this, OUTPUT_SLOTS, false, true);
+    private final OrderOfTheSpaceMachineSlotView fullView = new OrderOfTheSpaceMachineSlotView(this, ALL_SLOTS, true, true);
 
     private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
+    private LazyOptional<IItemHandler> lazyInputHandler = LazyOptional.empty();
+    private LazyOptional<IItemHandler> lazyCatalystHandler = LazyOptional.empty();
+    private LazyOptional<IItemHandler> lazyOutputHandler = LazyOptional.empty();
+
+    // Item handlers of the neighbours results are pushed into, by Direction 3D data value. Null until
+    // looked up, and dropped again when the neighbour's handler is invalidated. A block update next to
+    // the machine only has the neighbour looked at again, the handler is kept if the block entity is the
+    // same, so each handler gets one listener however often the neighbour is updated.
+    @SuppressWarnings("unchecked")
+    private final LazyOptional<IItemHandler>[] neighbourHandlers = new LazyOptional[6];
+    private final BlockEntity[] neighbourEntities = new BlockEntity[6];
+    @SuppressWarnings("unchecked")
+    private final LazyOptional<IItemHandler>[] listenedHandlers = new LazyOptional[6];
+    // Bit per direction
+    private int changedNeighbours;
+    private boolean ejecting;
 
     protected final ContainerData data;
     private int progress = 0;
     private int maxProgress = 72;
+    // Changes whenever progress starts over or jumps, so the screen knows to interpolate from the new value
+    // even when the checkpoint it syncs is the same as before, like for crafts shorter than the interval
+    private int progressCycle;
+    // Game time of the last tick applied to progress, ticks after it that never ran are caught up
+    private long lastUpdate;
+
+    // Version 1 replaced the full inventory compound and the long order_of_the_space_machine.* keys
+    private static final int SAVE_VERSION = 1;
+    private static final String VERSION_KEY = "v";
+    private static final String INVENTORY_SLOTS_KEY = "s";
+    private static final String INVENTORY_KEY = "i";
+    private static final String PROGRESS_KEY = "p";
+    private static final String LAST_UPDATE_KEY = "t";
+
+    private static final int PROGRESS_SAVE_INTERVAL = 20;
+    private static final int PROGRESS_SYNC_INTERVAL = 12;
+
+    private OrderOfTheSpaceMachineRecipeIndex recipeIndex;
+    private OrderOfTheSpaceMachineRecipe cachedRecipe;
+    private boolean recipeDirty = true;
+    // Output of cachedRecipe the next craft makes, drawn ahead so the output slot can be checked for it
+    private int pendingOutput;
+
+    // Owned by OrderOfTheSpaceMachineManager
+    boolean ticking;
+    boolean scheduled;
+    boolean activationPending;
+    boolean snapshotQueued;
+    // Owned by OrderOfTheSpaceArray, null for a machine on its own
+    OrderOfTheSpaceArray array;
 
     public OrderOfTheSpaceMachineBlockEntity(BlockPos pWorldPosition, BlockState pBlockState) {
-        super(ModBlockEntities.ORDER_OF_THE_SPACE_MACHINE_BLOCK_ENTITY.get(), pWorldPosition, pBlockState);
+        this(ModBlockEntities.ORDER_OF_THE_SPACE_MACHINE_BLOCK_ENTITY.get(), pWorldPosition, pBlockState);
+    }
+
+    // Also used by the benchmarks, which run without the mod's registries
+    public OrderOfTheSpaceMachineBlockEntity(BlockEntityType<?> pType, BlockPos pWorldPosition, BlockState pBlockState) {
+        super(pType, pWorldPosition, pBlockState);
+        // The block plus the item drawn above it
+        this.renderBoundingBox = new AABB(pWorldPosition, pWorldPosition.offset(1, 2, 1));
         this.data = new ContainerData() {
+            // Menus only resend a value when it changes, so progress is synced at checkpoints
+            // along with the rate it grows at and the cycle, and the screen interpolates in between.
+            // Values are sent as shorts, the cycle only has to differ from the last one.
             public int get(int index) {
                 switch (index) {
-                    case 0: return OrderOfTheSpaceMachineBlockEntity.this.progress;
+                    case 0: return OrderOfTheSpaceMachineBlockEntity.this.progress - OrderOfTheSpaceMachineBlockEntity.this.progress % PROGRESS_SYNC_INTERVAL;
                     case 1: return OrderOfTheSpaceMachineBlockEntity.this.maxProgress;
+                    case 2: return OrderOfTheSpaceMachineBlockEntity.this.ticking ? 1 : 0;
+                    case 3: return OrderOfTheSpaceMachineBlockEntity.this.progressCycle & Short.MAX_VALUE;
                     default: return 0;
                 }
             }
@@ -60,60 +365,278 @@ public class OrderOfTheSpaceMachineBlockEntity extends BlockEntity implements Me
                 switch(index) {
                     case 0: OrderOfTheSpaceMachineBlockEntity.this.progress = value; break;
                     case 1: OrderOfTheSpaceMachineBlockEntity.this.maxProgress = value; break;
+                    case 3: OrderOfTheSpaceMachineBlockEntity.this.progressCycle = value; break;
                 }
             }
 
             public int getCount() {
-                return 2;
+                return 4;
             }
         };
     }
 
     @Override
     public Component getDisplayName() {
-        return new TextComponent("Order Of The Space Machine");
+        return getBlockState().getBlock().getName();
     }
 
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int pContainerId, Inventory pInventory, Player pPlayer) {
-        return new OrderOfTheSpaceMachineMenu(pContainerId, pInventory, this, this.data);
+        OrderOfTheSpaceMachineBlockEntity controller = controller();
+        controller.catchUp();
+        return new OrderOfTheSpaceMachineMenu(pContainerId, pInventory, this, controller.data);
     }
 
     @Nonnull
     @Override
     public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> cap, @javax.annotation.Nullable Direction side) {
         if (cap == CapabilityItemHandler.ITEM_HANDLER_CAPABILITY) {
-            return lazyItemHandler.cast();
+            return getItemHandlerFor(side).cast();
         }
 
         return super.getCapability(cap, side);
     }
 
+    // Inputs go in from the top and the sides, the catalyst from the back, and results come out at the bottom
+    private LazyOptional<IItemHandler> getItemHandlerFor(@javax.annotation.Nullable Direction side) {
+        if (side == null) {
+            return lazyItemHandler;
+        }
+        if (side == Direction.DOWN) {
+            return lazyOutputHandler;
+        }
+        if (side == getBlockState().getValue(OrderOfTheSpaceMachineBlock.FACING).getOpposite()) {
+            return lazyCatalystHandler;
+        }
+        return lazyInputHandler;
+    }
+
+    // The shared inventory of the space array the machine is part of
+    public IItemHandlerModifiable getInventory() {
+        return controller().itemHandler;
+    }
+
+    IItemHandlerModifiable getOwnInventory() {
+        return itemHandler;
+    }
+
+    boolean isOwnInventoryEmpty() {
+        return itemHandler.isEmpty();
+    }
+
+    // Read by the tests, a save made from stacks that didn't change since their snapshot was encoded is true
+    public boolean wasSavedFromSnapshot() {
+        return itemHandler.savedFromSnapshot;
+    }
+
+    public OrderOfTheSpaceMachineBlockEntity controller() {
+        return array != null ? array.getController() : this;
+    }
+
+    public boolean isController() {
+        return controller() == this;
+    }
+
+    // Members stop working on their own, the controller crafts for them
+    void becomeMember() {
+        if (progress != 0) {
+            resetProgress();
+            setChanged();
+        }
+        setActive(false);
+    }
+
+    public OrderOfTheSpaceMachineSlotView getInputView() {
+        return inputView;
+    }
+
+    public OrderOfTheSpaceMachineSlotView getCatalystView() {
+        return catalystView;
+    }
+
+    public OrderOfTheSpaceMachineSlotView getOutputView() {
+        return outputView;
+    }
+
+    // Inventory changes made between these two calls are reported once, when the outermost batch ends
+    void beginInventoryBatch() {
+        controller().inventoryBatchDepth++;
+    }
+
+    void endInventoryBatch() {
+        OrderOfTheSpaceMachineBlockEntity controller = controller();
+        if (--controller.inventoryBatchDepth == 0 && controller.changedDuringBatch) {
+            controller.changedDuringBatch = false;
+            controller.inventoryChanged();
+        }
+    }
+
+    // Called by the manager for the machines that changed, in the ticks before the next autosave
+    void publishSnapshot() {
+        itemHandler.publishSnapshot();
+    }
+
+    // For changes made to the stacks in place, see OrderOfTheSpaceMachineSlot
+    public void slotChanged() {
+        if (level != null && !level.isClientSide()) {
+            controller().inventoryChanged();
+        }
+    }
+
+    private void inventoryChanged() {
+        if (!snapshotQueued && !remove && level instanceof ServerLevel serverLevel) {
+            OrderOfTheSpaceMachineManager.get(serverLevel).queueSnapshot(this);
+        }
+        recipeDirty = true;
+        setChanged();
+        wakeUp();
+        syncDisplayedItem();
+    }
+
+    // Clients only need the type of the item being processed, and only when it changes
+    private void syncDisplayedItem() {
+        Item item = itemHandler.getStackInSlot(0).getItem();
+        if (level != null && !level.isClientSide() && item != displayedItem.getItem()) {
+            displayedItem = item == Items.AIR ? ItemStack.EMPTY : new ItemStack(item);
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_CLIENTS);
+        }
+    }
+
+    public ItemStack getDisplayedItem() {
+        return displayedItem;
+    }
+
+    @Override
+    public CompoundTag getUpdateTag() {
+        CompoundTag tag = new CompoundTag();
+        tag.put("display", displayedItem.save(new CompoundTag()));
+        return tag;
+    }
+
+    @Nullable
+    @Override
+    public Packet<ClientGamePacketListener> getUpdatePacket() {
+        return ClientboundBlockEntityDataPacket.create(this);
+    }
+
+    // The update tag only holds the displayed item, it must not go through load()
+    @Override
+    public void handleUpdateTag(CompoundTag tag) {
+        displayedItem = ItemStack.of(tag.getCompound("display"));
+    }
+
+    @Override
+    public void onDataPacket(Connection net, ClientboundBlockEntityDataPacket pkt) {
+        CompoundTag tag = pkt.getTag();
+        if (tag != null) {
+            handleUpdateTag(tag);
+        }
+    }
+
+    @Override
+    public AABB getRenderBoundingBox() {
+        return renderBoundingBox;
+    }
+
     @Override
     public void onLoad() {
         super.onLoad();
-        lazyItemHandler = LazyOptional.of(() -> itemHandler);
+        lazyItemHandler = LazyOptional.of(() -> fullView);
+        lazyInputHandler = LazyOptional.of(() -> inputView);
+        lazyCatalystHandler = LazyOptional.of(() -> catalystView);
+        lazyOutputHandler = LazyOptional.of(() -> outputView);
+        if (level instanceof ServerLevel serverLevel) {
+            OrderOfTheSpaceMachineManager manager = OrderOfTheSpaceMachineManager.get(serverLevel);
+            manager.add(this);
+            manager.queueActivation(this);
+        }
+    }
+
+    // The rest of loading, run when the manager's activation queue gets to the machine. Progress isn't
+    // lost while waiting, catchUp() applies the ticks since the last update.
+    void activate() {
+        activationPending = false;
+        if (isRemoved()) {
+            return;
+        }
+        // Ticking before the merge wakes it keeps wakeUp() from dropping the missed ticks
+        if (getBlockState().getValue(OrderOfTheSpaceMachineBlock.ACTIVE)) {
+            OrderOfTheSpaceMachineManager.get((ServerLevel) level).setActive(this, true);
+        }
+        if (array == null) {
+            OrderOfTheSpaceArray.join(this);
+        }
+        // Once in its array, so the missed crafts are made with the array's batch size and inventory
+        controller().catchUp();
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (level instanceof ServerLevel serverLevel) {
+            OrderOfTheSpaceMachineManager manager = OrderOfTheSpaceMachineManager.getIfPresent(serverLevel);
+            if (manager != null) {
+                manager.remove(this);
+            }
+            OrderOfTheSpaceArray.leave(this);
+        }
     }
 
     @Override
     public void invalidateCaps()  {
         super.invalidateCaps();
         lazyItemHandler.invalidate();
+        lazyInputHandler.invalidate();
+        lazyCatalystHandler.invalidate();
+        lazyOutputHandler.invalidate();
     }
 
     @Override
     protected void saveAdditional(@NotNull CompoundTag tag) {
-        tag.put("inventory", itemHandler.serializeNBT());
-        tag.putInt("order_of_the_space_machine.progress", progress);
+        OneJfrEvents.InventorySerialization event = new OneJfrEvents.InventorySerialization();
+        event.begin();
+        tag.putByte(VERSION_KEY, (byte) SAVE_VERSION);
+        itemHandler.savePacked(tag);
+        // Left out when they hold the value they load as
+        if (progress != 0) {
+            tag.putInt(PROGRESS_KEY, progress);
+        }
+        if (lastUpdate != 0) {
+            tag.putLong(LAST_UPDATE_KEY, lastUpdate);
+        }
         super.saveAdditional(tag);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPos(worldPosition);
+            event.save = true;
+            event.commit();
+        }
     }
 
     @Override
     public void load(CompoundTag nbt) {
+        OneJfrEvents.InventorySerialization event = new OneJfrEvents.InventorySerialization();
+        event.begin();
         super.load(nbt);
-        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
-        progress = nbt.getInt("order_of_the_space_machine.progress");
+        if (nbt.contains(VERSION_KEY)) {
+            itemHandler.loadPacked(nbt.getByteArray(INVENTORY_SLOTS_KEY), nbt.getList(INVENTORY_KEY, Tag.TAG_COMPOUND));
+            progress = nbt.getInt(PROGRESS_KEY);
+            lastUpdate = nbt.getLong(LAST_UPDATE_KEY);
+        } else {
+            // Saved before the format was versioned, written in the new one on the next save
+            itemHandler.deserializeNBT(nbt.getCompound("inventory"));
+            progress = nbt.getInt("order_of_the_space_machine.progress");
+            lastUpdate = nbt.getLong("order_of_the_space_machine.last_update");
+        }
+        Item displayed = itemHandler.getFirstItem();
+        displayedItem = displayed == Items.AIR ? ItemStack.EMPTY : new ItemStack(displayed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPos(worldPosition);
+            event.save = false;
+            event.commit();
+        }
     }
 
     public void drops() {
@@ -126,62 +649,369 @@ public class OrderOfTheSpaceMachineBlockEntity extends BlockEntity implements Me
     }
 
     public static void tick(Level pLevel, BlockPos pPos, BlockState pState, OrderOfTheSpaceMachineBlockEntity pBlockEntity) {
+        OneJfrEvents.MachineTick event = new OneJfrEvents.MachineTick();
+        event.begin();
+        long start = OneProfiler.enabled ? System.nanoTime() : 0L;
+        pBlockEntity.catchUp();
+        pBlockEntity.lastUpdate = pLevel.getGameTime();
+        // 0 sleep, 1 progress, 2 craft, as recorded in the tick event
+        byte action = 0;
         if(hasRecipe(pBlockEntity)) {
             pBlockEntity.progress++;
-            setChanged(pLevel, pPos, pState);
             if(pBlockEntity.progress > pBlockEntity.maxProgress) {
-                craftItem(pBlockEntity);
+                action = 2;
+                craftItem(pBlockEntity, pBlockEntity.getBatchSize());
+            } else {
+                action = 1;
+                pBlockEntity.progressChanged();
             }
         } else {
-            pBlockEntity.resetProgress();
-            setChanged(pLevel, pPos, pState);
+            if (pBlockEntity.progress != 0) {
+                pBlockEntity.resetProgress();
+                pBlockEntity.setChanged();
+            } else if (OneProfiler.enabled) {
+                OneProfiler.skippedDirtyMark(pLevel, pPos);
+            }
+            pBlockEntity.setActive(false);
+        }
+        if (OneProfiler.enabled) {
+            OneProfiler.machineTick(pLevel, pPos, System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPos(pPos);
+            event.action = action;
+            event.commit();
         }
     }
 
-    private static boolean hasRecipe(OrderOfTheSpaceMachineBlockEntity entity) {
-        Level level = entity.level;
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
+    // An active machine makes getBatchSize() crafts every maxProgress + 1 ticks, so the ticks it missed
+    // while unloaded or in a chunk that wasn't ticking are applied at once, limited by what the inputs,
+    // the catalyst and the output slot allow. Called when the machine is loaded, ticked or opened.
+    void catchUp() {
+        if (level == null || level.isClientSide() || lastUpdate == 0
+                || !getBlockState().getValue(OrderOfTheSpaceMachineBlock.ACTIVE)) {
+            return;
+        }
+        long now = level.getGameTime();
+        long missed = now - lastUpdate - 1;
+        if (missed <= 0) {
+            return;
+        }
+        lastUpdate = now - 1;
+        setChanged();
+
+        // Also sets maxProgress to the recipe's processing time
+        OrderOfTheSpaceMachineRecipe match = getRecipe();
+        if (match == null || !hasRecipe(this)) {
+            // The next tick puts the machine to sleep
+            return;
+        }
+
+        long cycle = maxProgress + 1;
+        long untilCraft = Math.max(cycle - progress, 1);
+        if (missed < untilCraft) {
+            progress += (int) missed;
+            progressCycle++;
+            return;
+        }
+        long cycles = 1 + (missed - untilCraft) / cycle;
+        long wanted = cycles * getBatchSize();
+        int crafts = craftItem(this, (int) Math.min(wanted, maxCrafts(this, match)));
+        // A machine that ran out of something stopped with its last craft
+        if (crafts == wanted) {
+            progress = (int) ((missed - untilCraft) % cycle);
+        }
+    }
+
+    // Inventory changes already mark the machine dirty, plain progress only does it every few ticks
+    private void progressChanged() {
+        if (progress % PROGRESS_SAVE_INTERVAL == 0) {
+            setChanged();
+        } else if (OneProfiler.enabled) {
+            OneProfiler.skippedDirtyMark(level, worldPosition);
+        }
+    }
+
+    // Pushes the output slot into the inventories around the machine, using the cached neighbour handlers
+    public void ejectOutput() {
+        if (ejecting || level == null || level.isClientSide() || !isController()
+                || !OneCommonConfigs.MACHINE_AUTO_EJECT.get()) {
+            return;
+        }
+        // Block updates around a sleeping machine would otherwise decode its packed inventory to find nothing
+        if (itemHandler.isSlotEmpty(3)) {
+            return;
+        }
+        // Inserting may notify this machine again through onNeighborChange
+        ejecting = true;
+        try {
+            for (Direction direction : Direction.values()) {
+                ItemStack output = itemHandler.getStackInSlot(3);
+                if (output.isEmpty()) {
+                    return;
+                }
+                IItemHandler target = getEjectTarget(direction);
+                if (target != null) {
+                    ItemStack remaining = ItemHandlerHelper.insertItemStacked(target, output, false);
+                    if (remaining.getCount() != output.getCount()) {
+                        itemHandler.setStackInSlot(3, remaining);
+                    }
+                }
+            }
+        } finally {
+            ejecting = false;
+        }
+    }
+
+    @Nullable
+    private IItemHandler getEjectTarget(Direction direction) {
+        int index = direction.get3DDataValue();
+        if ((neighbourHandlers[index] == null || (changedNeighbours & 1 << index) != 0) && !findNeighbourHandler(direction)) {
+            return null;
+        }
+        return neighbourHandlers[index].resolve().orElse(null);
+    }
+
+    // False while the neighbour's chunk isn't loaded, so it is looked at again later
+    private boolean findNeighbourHandler(Direction direction) {
+        BlockPos pos = worldPosition.relative(direction);
+        if (!level.isLoaded(pos)) {
+            return false;
+        }
+        int index = direction.get3DDataValue();
+        changedNeighbours &= ~(1 << index);
+        BlockEntity neighbour = level.getBlockEntity(pos);
+        // Results pushed into another machine or into a hopper filling this one would come back as inputs
+        if (neighbour == null || neighbour instanceof OrderOfTheSpaceMachineBlockEntity
+                || neighbour instanceof HopperBlockEntity && neighbour.getBlockState().getValue(HopperBlock.FACING) == direction.getOpposite()) {
+            neighbourEntities[index] = null;
+            neighbourHandlers[index] = LazyOptional.empty();
+            return true;
+        }
+        if (neighbour == neighbourEntities[index] && neighbourHandlers[index] != null && neighbourHandlers[index].isPresent()) {
+            return true;
+        }
+        LazyOptional<IItemHandler> handler = neighbour.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, direction.getOpposite());
+        neighbourEntities[index] = neighbour;
+        neighbourHandlers[index] = handler;
+        if (handler.isPresent() && handler != listenedHandlers[index]) {
+            listenedHandlers[index] = handler;
+            handler.addListener(new NeighbourListener(this, index));
+        }
+        return true;
+    }
+
+    public void neighbourChanged(BlockPos neighbour) {
+        for (Direction direction : Direction.values()) {
+            if (worldPosition.relative(direction).equals(neighbour)) {
+                changedNeighbours |= 1 << direction.get3DDataValue();
+            }
+        }
+    }
+
+    // Neighbours outlive the machine, so their handlers only hold on to it weakly
+    private static class NeighbourListener implements NonNullConsumer<LazyOptional<IItemHandler>> {
+        private final WeakReference<OrderOfTheSpaceMachineBlockEntity> machine;
+        private final int index;
+
+        NeighbourListener(OrderOfTheSpaceMachineBlockEntity machine, int index) {
+            this.machine = new WeakReference<>(machine);
+            this.index = index;
+        }
+
+        @Override
+        public void accept(@Nonnull LazyOptional<IItemHandler> invalidated) {
+            OrderOfTheSpaceMachineBlockEntity entity = machine.get();
+            if (entity == null) {
+                return;
+            }
+            if (entity.listenedHandlers[index] == invalidated) {
+                entity.listenedHandlers[index] = null;
+            }
+            if (entity.neighbourHandlers[index] == invalidated) {
+                entity.neighbourHandlers[index] = null;
+                entity.neighbourEntities[index] = null;
+            }
+        }
+    }
+
+    public void wakeUp() {
+        if (!isController()) {
+            controller().wakeUp();
+        } else if (level != null && !level.isClientSide() && !remove) {
+            // Catches up first, which waking would otherwise skip
+            if (activationPending) {
+                OrderOfTheSpaceMachineManager.get((ServerLevel) level).activateNow(this);
+            }
+            recipeDirty = true;
+            if (!ticking) {
+                lastUpdate = level.getGameTime();
+            }
+            setActive(true);
+        }
+    }
+
+    // Nothing around the machine depends on this, so neighbours don't need to be notified
+    private void setActive(boolean active) {
+        BlockState state = getBlockState();
+        if (state.getValue(OrderOfTheSpaceMachineBlock.ACTIVE) != active) {
+            level.setBlock(worldPosition, state.setValue(OrderOfTheSpaceMachineBlock.ACTIVE, active), Block.UPDATE_CLIENTS);
+        }
+        if (ticking != active) {
+            OrderOfTheSpaceMachineManager.get((ServerLevel) level).setActive(this, active);
+        }
+    }
+
+    @Nullable
+    private OrderOfTheSpaceMachineRecipe getRecipe() {
+        OneJfrEvents.RecipeLookup event = new OneJfrEvents.RecipeLookup();
+        event.begin();
+        RecipeManager recipeManager = getRecipeManager();
+        boolean cached = !recipeDirty && recipeIndex != null && recipeIndex.isValidFor(recipeManager);
+        if (!cached) {
+            recipeIndex = OrderOfTheSpaceMachineRecipeIndex.of(recipeManager);
+            OrderOfTheSpaceMachineRecipe previous = cachedRecipe;
+            cachedRecipe = recipeIndex.find(itemHandler);
+            recipeDirty = false;
+            if (cachedRecipe != null) {
+                maxProgress = cachedRecipe.getProcessingTime();
+                if (cachedRecipe != previous) {
+                    pendingOutput = cachedRecipe.drawOutput(getRandom());
+                }
+            }
+        }
+        if (OneProfiler.enabled) {
+            OneProfiler.recipeLookup(cached);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPos(worldPosition);
+            event.recipe = cachedRecipe == null ? null : cachedRecipe.getId().toString();
+            event.cacheHit = cached;
+            event.commit();
+        }
+        return cachedRecipe;
+    }
+
+    // The machine benchmark runs without a level and overrides these two
+    RecipeManager getRecipeManager() {
+        return level.getRecipeManager();
+    }
+
+    Random getRandom() {
+        return level.random;
+    }
 
-        Optional<OrderOfTheSpaceMachineRecipe> match = level.getRecipeManager()
-                .getRecipeFor(OrderOfTheSpaceMachineRecipe.Type.INSTANCE, inventory, level);
+    boolean canRun() {
+        return hasRecipe(this);
+    }
 
-        return match.isPresent() && canInsertAmountIntoOutputSlot(inventory)
-                && canInsertItemIntoOutputSlot(inventory, match.get().getResultItem());}
+    int craft() {
+        return craftItem(this, getBatchSize());
+    }
 
-    private static void craftItem(OrderOfTheSpaceMachineBlockEntity entity) {
-        Level level = entity.level;
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
+    private static boolean hasRecipe(OrderOfTheSpaceMachineBlockEntity entity) {
+        if (OneProfiler.enabled) {
+            OneProfiler.hasRecipe();
         }
+        OrderOfTheSpaceMachineRecipe match = entity.getRecipe();
+        ItemStack outputSlot = entity.itemHandler.getStackInSlot(3);
+
+        return match != null && canInsertItemIntoOutputSlot(outputSlot, match.getOutput(entity.pendingOutput))
+                && maxCrafts(entity, match) > 0;
+    }
+
+    // Runs up to the given number of crafts at once and commits them with a single change notification.
+    // Each craft makes the pending output and draws the next one, the batch stops early when the next
+    // output doesn't stack with what is in the output slot.
+    private static int craftItem(OrderOfTheSpaceMachineBlockEntity entity, int wanted) {
+        OneJfrEvents.Craft event = new OneJfrEvents.Craft();
+        event.begin();
+        OrderOfTheSpaceMachineRecipe match = entity.getRecipe();
 
-        Optional<OrderOfTheSpaceMachineRecipe> match = level.getRecipeManager()
-                .getRecipeFor(OrderOfTheSpaceMachineRecipe.Type.INSTANCE, inventory, level);
+        if(match != null) {
+            ItemStack input = entity.itemHandler.getStackInSlot(0);
+            ItemStack secondInput = entity.itemHandler.getStackInSlot(1);
+            ItemStack catalyst = entity.itemHandler.getStackInSlot(2);
+            ItemStack output = entity.itemHandler.getStackInSlot(3);
+            int crafts = 0;
+            int made = output.getCount();
+            Item madeItem = output.getItem();
+            int limit = Math.min(wanted, maxCrafts(entity, match));
+            while (crafts < limit) {
+                ItemStack next = match.getOutput(entity.pendingOutput);
+                if (made > 0 && next.getItem() != madeItem || made + next.getCount() > next.getMaxStackSize()) {
+                    break;
+                }
+                made += next.getCount();
+                madeItem = next.getItem();
+                crafts++;
+                entity.pendingOutput = match.drawOutput(entity.getRandom());
+            }
+            if (OneProfiler.enabled) {
+                OneProfiler.craftItem(crafts);
+            }
 
-        if(match.isPresent()) {
-            entity.itemHandler.extractItem(0,1, false);
-            entity.itemHandler.extractItem(1,1, false);
-            entity.itemHandler.getStackInSlot(2).hurt(1, new Random(), null);
+            input.shrink(crafts * match.getCount(0));
+            secondInput.shrink(crafts * match.getCount(1));
+            if (catalyst.hurt(crafts, new Random(), null)) {
+                catalyst.shrink(1);
+            }
 
-            entity.itemHandler.setStackInSlot(3, new ItemStack(match.get().getResultItem().getItem(),
-                    entity.itemHandler.getStackInSlot(3).getCount() + 1));
+            if (crafts > 0) {
+                entity.itemHandler.setStackInSlot(3, new ItemStack(madeItem, made));
+                entity.ejectOutput();
+            }
 
             entity.resetProgress();
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPos(entity.worldPosition);
+                event.recipe = match.getId().toString();
+                event.crafts = crafts;
+                event.commit();
+            }
+            return crafts;
         }
+        return 0;
     }
 
-    private void resetProgress() {
-        this.progress = 0;
+    // How many crafts the input counts, the durability left on the catalyst and the room in the output slot
+    // allow, counting on the pending output. Crafts that draw another output may stop before that.
+    private static int maxCrafts(OrderOfTheSpaceMachineBlockEntity entity, OrderOfTheSpaceMachineRecipe match) {
+        ItemStack catalyst = entity.itemHandler.getStackInSlot(2);
+        ItemStack output = entity.itemHandler.getStackInSlot(3);
+        ItemStack pending = match.getOutput(entity.pendingOutput);
+        int outputSpace = (output.isEmpty() ? pending.getMaxStackSize() : output.getMaxStackSize()) - output.getCount();
+        int crafts = outputSpace / Math.max(pending.getCount(), 1);
+        for (int slot = 0; slot < 2; slot++) {
+            if (match.hasIngredient(slot)) {
+                crafts = Math.min(crafts, entity.itemHandler.getStackInSlot(slot).getCount() / match.getCount(slot));
+            }
+        }
+        if (catalyst.isDamageableItem()) {
+            crafts = Math.min(crafts, catalyst.getMaxDamage() - catalyst.getDamageValue());
+        }
+        return Math.max(crafts, 0);
+    }
+
+    // A controller crafts for every machine of its space array
+    public int getBatchSize() {
+        return array != null ? array.getBatchSize() : getOwnBatchSize();
     }
 
-    private static boolean canInsertItemIntoOutputSlot(SimpleContainer inventory, ItemStack output) {
-        return inventory.getItem(3).getItem() == output.getItem() || inventory.getItem(3).isEmpty();
+    int getOwnBatchSize() {
+        return getBlockState().getBlock() instanceof OrderOfTheSpaceMachineBlock machine ? machine.getBatchSize() : 1;
+    }
+
+    private void resetProgress() {
+        this.progress = 0;
+        this.progressCycle++;
     }
 
-    private static boolean canInsertAmountIntoOutputSlot(SimpleContainer inventory) {
-        return inventory.getItem(3).getMaxStackSize() > inventory.getItem(3).getCount();
+    private static boolean canInsertItemIntoOutputSlot(ItemStack outputSlot, ItemStack output) {
+        return outputSlot.getItem() == output.getItem() || outputSlot.isEmpty();
     }
 }
@@ -0,0 +1,300 @@
+package com.fairy.one.block.entity;
+
+import com.fairy.one.config.OneCommonConfigs;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Ticks all the active machines of a server level in one loop instead of one block entity ticker each.
+// Active machines live in a dense array that is walked round-robin, so when the server is behind its
+// target MSPT the loop can stop at the time budget and carry on from the same place next tick.
+// Newly loaded machines wait in an activation queue so a chunk full of them is started over a few ticks.
+// The queue is kept per chunk, and the chunks are only ranked by player distance again when a chunk is
+// added or a player moves to another chunk.
+// Machines whose inventory changed wait for a snapshot, taken in the ticks before the next autosave.
+public class OrderOfTheSpaceMachineManager {
+    private static final Map<ServerLevel, OrderOfTheSpaceMachineManager> MANAGERS = new IdentityHashMap<>();
+    // Checking the clock for every machine would cost more than ticking it
+    private static final int MACHINES_PER_BUDGET_CHECK = 16;
+    // The server saves every AUTOSAVE_INTERVAL ticks, snapshots are spread over the ticks leading up to it
+    private static final int AUTOSAVE_INTERVAL = 6000;
+    private static final int SNAPSHOT_LEAD_TICKS = 100;
+
+    private final ServerLevel level;
+    private final Set<OrderOfTheSpaceMachineBlockEntity> machines = new HashSet<>();
+    private OrderOfTheSpaceMachineBlockEntity[] active = new OrderOfTheSpaceMachineBlockEntity[16];
+    private int activeCount;
+    private int cursor;
+    private boolean needsCompaction;
+    private long lastTickNanos;
+    private final Long2ObjectOpenHashMap<ArrayDeque<OrderOfTheSpaceMachineBlockEntity>> activationQueue = new Long2ObjectOpenHashMap<>();
+    private int queuedActivations;
+    // Chunks of activationQueue nearest to a player first, the ones before rankStart are done
+    private long[] rankedChunks = new long[0];
+    private int rankStart;
+    private boolean rankDirty;
+    // Chunk of each player when the chunks were ranked
+    private long[] playerChunks = new long[0];
+    private final ObjectLinkedOpenHashSet<OrderOfTheSpaceMachineBlockEntity> snapshotQueue = new ObjectLinkedOpenHashSet<>();
+
+    private OrderOfTheSpaceMachineManager(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static OrderOfTheSpaceMachineManager get(ServerLevel level) {
+        return MANAGERS.computeIfAbsent(level, OrderOfTheSpaceMachineManager::new);
+    }
+
+    @Nullable
+    public static OrderOfTheSpaceMachineManager getIfPresent(ServerLevel level) {
+        return MANAGERS.get(level);
+    }
+
+    public static void unload(ServerLevel level) {
+        MANAGERS.remove(level);
+    }
+
+    public static void wakeAll() {
+        for (OrderOfTheSpaceMachineManager manager : MANAGERS.values()) {
+            for (OrderOfTheSpaceMachineBlockEntity machine : manager.machines) {
+                machine.wakeUp();
+            }
+        }
+    }
+
+    public void add(OrderOfTheSpaceMachineBlockEntity machine) {
+        machines.add(machine);
+    }
+
+    public void remove(OrderOfTheSpaceMachineBlockEntity machine) {
+        machines.remove(machine);
+        setActive(machine, false);
+        if (machine.snapshotQueued) {
+            machine.snapshotQueued = false;
+            snapshotQueue.remove(machine);
+        }
+    }
+
+    public void queueActivation(OrderOfTheSpaceMachineBlockEntity machine) {
+        machine.activationPending = true;
+        long chunk = ChunkPos.asLong(machine.getBlockPos());
+        ArrayDeque<OrderOfTheSpaceMachineBlockEntity> queue = activationQueue.get(chunk);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            activationQueue.put(chunk, queue);
+            rankDirty = true;
+        }
+        queue.add(machine);
+        queuedActivations++;
+    }
+
+    // For a queued machine something else needs working now, it is skipped when its turn comes
+    public void activateNow(OrderOfTheSpaceMachineBlockEntity machine) {
+        if (machine.activationPending) {
+            machine.activate();
+        }
+    }
+
+    public void queueSnapshot(OrderOfTheSpaceMachineBlockEntity machine) {
+        machine.snapshotQueued = true;
+        snapshotQueue.add(machine);
+    }
+
+    public int getQueuedSnapshots() {
+        return snapshotQueue.size();
+    }
+
+    // Also counts machines that were activated early and are skipped when their turn comes
+    public int getQueuedActivations() {
+        return queuedActivations;
+    }
+
+    public void setActive(OrderOfTheSpaceMachineBlockEntity machine, boolean isActive) {
+        machine.ticking = isActive;
+        if (!isActive) {
+            needsCompaction = true;
+        } else if (!machine.scheduled) {
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, activeCount * 2);
+            }
+            active[activeCount++] = machine;
+            machine.scheduled = true;
+        }
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    // Time the last tick() took, read by the load tests
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public void tick() {
+        long start = System.nanoTime();
+        if (queuedActivations > 0) {
+            activateQueued();
+        }
+        int count = activeCount;
+        if (count > 0) {
+            boolean limited = level.getServer().getAverageTickTime() > OneCommonConfigs.MACHINE_TARGET_MSPT.get();
+            long budget = OneCommonConfigs.MACHINE_TICK_BUDGET_MICROS.get() * 1000L;
+
+            for (int i = 0; i < count; i++) {
+                if (cursor >= count) {
+                    cursor = 0;
+                }
+                OrderOfTheSpaceMachineBlockEntity machine = active[cursor++];
+                if (machine.ticking && !machine.isRemoved()
+                        && level.shouldTickBlocksAt(ChunkPos.asLong(machine.getBlockPos()))) {
+                    OrderOfTheSpaceMachineBlockEntity.tick(level, machine.getBlockPos(), machine.getBlockState(), machine);
+                }
+
+                if (limited && i % MACHINES_PER_BUDGET_CHECK == MACHINES_PER_BUDGET_CHECK - 1
+                        && System.nanoTime() - start > budget) {
+                    break;
+                }
+            }
+        }
+
+        if (needsCompaction) {
+            compact();
+        }
+        if (!snapshotQueue.isEmpty()) {
+            publishSnapshots();
+        }
+        lastTickNanos = System.nanoTime() - start;
+    }
+
+    private void activateQueued() {
+        if (playersMovedChunks() || rankDirty) {
+            rankChunks();
+        }
+
+        int budget = OneCommonConfigs.MACHINE_ACTIVATIONS_PER_TICK.get();
+        int activated = 0;
+        for (int i = rankStart; i < rankedChunks.length && activated < budget; i++) {
+            ArrayDeque<OrderOfTheSpaceMachineBlockEntity> queue = activationQueue.get(rankedChunks[i]);
+            while (queue != null && !queue.isEmpty() && activated < budget) {
+                OrderOfTheSpaceMachineBlockEntity machine = queue.poll();
+                queuedActivations--;
+                if (machine.activationPending && !machine.isRemoved()) {
+                    machine.activate();
+                    activated++;
+                }
+            }
+            if (queue != null && queue.isEmpty()) {
+                activationQueue.remove(rankedChunks[i]);
+            }
+            if (i == rankStart && (queue == null || queue.isEmpty())) {
+                rankStart++;
+            }
+        }
+    }
+
+    // A machine changing again after its snapshot is queued again, and saving checks that the snapshot
+    // is still current, so a machine missed here is only encoded on the server thread while saving
+    private void publishSnapshots() {
+        // Ticks left including this one, the autosave runs at the end of the ticks whose count is a multiple
+        int untilSave = Math.floorMod(-level.getServer().getTickCount(), AUTOSAVE_INTERVAL) + 1;
+        if (untilSave > SNAPSHOT_LEAD_TICKS) {
+            return;
+        }
+        publishSnapshots((snapshotQueue.size() + untilSave - 1) / untilSave);
+    }
+
+    // What the last tick before an autosave does, used by the tests to save without waiting for one
+    public void publishQueuedSnapshots() {
+        publishSnapshots(snapshotQueue.size());
+    }
+
+    private void publishSnapshots(int count) {
+        for (int i = 0; i < count; i++) {
+            OrderOfTheSpaceMachineBlockEntity machine = snapshotQueue.removeFirst();
+            machine.snapshotQueued = false;
+            machine.publishSnapshot();
+        }
+    }
+
+    private boolean playersMovedChunks() {
+        List<ServerPlayer> players = level.players();
+        boolean moved = players.size() != playerChunks.length;
+        if (moved) {
+            playerChunks = new long[players.size()];
+        }
+        for (int i = 0; i < playerChunks.length; i++) {
+            long chunk = players.get(i).chunkPosition().toLong();
+            if (playerChunks[i] != chunk) {
+                playerChunks[i] = chunk;
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    private void rankChunks() {
+        long[] chunks = activationQueue.keySet().toLongArray();
+        long[] distances = new long[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            distances[i] = nearestPlayerDistance(chunks[i]);
+        }
+        it.unimi.dsi.fastutil.Arrays.quickSort(0, chunks.length, (a, b) -> Long.compare(distances[a], distances[b]), (a, b) -> {
+            long chunk = chunks[a];
+            chunks[a] = chunks[b];
+            chunks[b] = chunk;
+            long distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        });
+        rankedChunks = chunks;
+        rankStart = 0;
+        rankDirty = false;
+    }
+
+    // Squared, in chunks
+    private long nearestPlayerDistance(long chunk) {
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        long nearest = Long.MAX_VALUE;
+        for (long player : playerChunks) {
+            long dx = ChunkPos.getX(player) - x;
+            long dz = ChunkPos.getZ(player) - z;
+            nearest = Math.min(nearest, dx * dx + dz * dz);
+        }
+        return nearest;
+    }
+
+    // Drops the machines that went to sleep while keeping the round-robin order and position
+    private void compact() {
+        int kept = 0;
+        int newCursor = 0;
+        for (int i = 0; i < activeCount; i++) {
+            OrderOfTheSpaceMachineBlockEntity machine = active[i];
+            if (machine.ticking && !machine.isRemoved()) {
+                active[kept++] = machine;
+                if (i < cursor) {
+                    newCursor++;
+                }
+            } else {
+                machine.ticking = false;
+                machine.scheduled = false;
+            }
+        }
+        Arrays.fill(active, kept, activeCount, null);
+        activeCount = kept;
+        cursor = newCursor;
+        needsCompaction = false;
+    }
+}
@@ -0,0 +1,112 @@
+package com.fairy.one.block.entity;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import javax.annotation.Nonnull;
+
+// The part of a machine's inventory exposed on one face of the block. It always goes through
+// getInventory(), so machines that are part of a space array expose the shared inventory.
+public class OrderOfTheSpaceMachineSlotView implements IItemHandlerModifiable {
+    private final OrderOfTheSpaceMachineBlockEntity machine;
+    private final int[] slots;
+    private final boolean canInsert;
+    private final boolean canExtract;
+
+    public OrderOfTheSpaceMachineSlotView(OrderOfTheSpaceMachineBlockEntity machine, int[] slots, boolean canInsert, boolean canExtract) {
+        this.machine = machine;
+        this.slots = slots;
+        this.canInsert = canInsert;
+        this.canExtract = canExtract;
+    }
+
+    @Override
+    public int getSlots() {
+        return slots.length;
+    }
+
+    @Nonnull
+    @Override
+    public ItemStack getStackInSlot(int slot) {
+        return machine.getInventory().getStackInSlot(slots[slot]);
+    }
+
+    @Override
+    public void setStackInSlot(int slot, @Nonnull ItemStack stack) {
+        machine.getInventory().setStackInSlot(slots[slot], stack);
+    }
+
+    @Nonnull
+    @Override
+    public ItemStack insertItem(int slot, @Nonnull ItemStack stack, boolean simulate) {
+        return canInsert ? machine.getInventory().insertItem(slots[slot], stack, simulate) : stack;
+    }
+
+    @Nonnull
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate) {
+        return canExtract ? machine.getInventory().extractItem(slots[slot], amount, simulate) : ItemStack.EMPTY;
+    }
+
+    @Override
+    public int getSlotLimit(int slot) {
+        return machine.getInventory().getSlotLimit(slots[slot]);
+    }
+
+    @Override
+    public boolean isItemValid(int slot, @Nonnull ItemStack stack) {
+        return canInsert && machine.getInventory().isItemValid(slots[slot], stack);
+    }
+
+    // Moves as much of the stack as fits into the slots of this view, with a single change notification
+    @Nonnull
+    public ItemStack insertAll(@Nonnull ItemStack stack, boolean simulate) {
+        if (!canInsert || stack.isEmpty()) {
+            return stack;
+        }
+
+        IItemHandlerModifiable inventory = machine.getInventory();
+        ItemStack remaining = stack;
+        machine.beginInventoryBatch();
+        try {
+            for (int i = 0; i < slots.length && !remaining.isEmpty(); i++) {
+                remaining = inventory.insertItem(slots[i], remaining, simulate);
+            }
+        } finally {
+            machine.endInventoryBatch();
+        }
+        return remaining;
+    }
+
+    // Takes up to amount items of the first stack found in this view, merged across its slots,
+    // with a single change notification
+    @Nonnull
+    public ItemStack extractAll(int amount, boolean simulate) {
+        if (!canExtract || amount <= 0) {
+            return ItemStack.EMPTY;
+        }
+
+        IItemHandlerModifiable inventory = machine.getInventory();
+        ItemStack extracted = ItemStack.EMPTY;
+        machine.beginInventoryBatch();
+        try {
+            for (int i = 0; i < slots.length && extracted.getCount() < amount; i++) {
+                ItemStack inSlot = inventory.getStackInSlot(slots[i]);
+                if (inSlot.isEmpty() || (!extracted.isEmpty() && !ItemHandlerHelper.canItemStacksStack(extracted, inSlot))) {
+                    continue;
+                }
+
+                ItemStack taken = inventory.extractItem(slots[i], amount - extracted.getCount(), simulate);
+                if (extracted.isEmpty()) {
+                    extracted = taken;
+                } else {
+                    extracted.grow(taken.getCount());
+                }
+            }
+        } finally {
+            machine.endInventoryBatch();
+        }
+        return extracted;
+    }
+}
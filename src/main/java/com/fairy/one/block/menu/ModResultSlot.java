@@ -1,12 +1,12 @@
 package com.fairy.one.block.menu;
 
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.SlotItemHandler;
 
-public class ModResultSlot extends SlotItemHandler {
-    public ModResultSlot(IItemHandler itemHandler, int index, int x, int y) {
-        super(itemHandler, index, x, y);
+public class ModResultSlot extends OrderOfTheSpaceMachineSlot {
+    public ModResultSlot(OrderOfTheSpaceMachineBlockEntity blockEntity, IItemHandler itemHandler, int index, int x, int y) {
+        super(blockEntity, itemHandler, index, x, y);
     }
 
     @Override
@@ -1,6 +1,5 @@
 package com.fairy.one.block.menu;
 
-import com.fairy.one.block.ModBlocks;
 import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
@@ -10,15 +9,16 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.items.CapabilityItemHandler;
-import net.minecraftforge.items.SlotItemHandler;
 
 public class OrderOfTheSpaceMachineMenu extends AbstractContainerMenu {
     private final OrderOfTheSpaceMachineBlockEntity blockEntity;
     private final Level level;
     private final ContainerData data;
+    // Client game time at which the last progress checkpoint, or a new cycle, arrived
+    private long checkpointTime;
 
     public OrderOfTheSpaceMachineMenu(int pContainerId, Inventory inv, FriendlyByteBuf extraData) {
-        this(pContainerId, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(2));
+        this(pContainerId, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(4));
     }
 
     public OrderOfTheSpaceMachineMenu(int pContainerId, Inventory inv, BlockEntity entity, ContainerData data) {
@@ -32,25 +32,33 @@ public class OrderOfTheSpaceMachineMenu extends AbstractContainerMenu {
         addPlayerHotbar(inv);
 
         this.blockEntity.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY).ifPresent(handler -> {
-            this.addSlot(new SlotItemHandler(handler, 0, 34, 40));
-            this.addSlot(new SlotItemHandler(handler, 1, 57, 18));
-            this.addSlot(new SlotItemHandler(handler, 2, 103, 18));
-            this.addSlot(new ModResultSlot(handler, 3, 80, 60));
+            this.addSlot(new OrderOfTheSpaceMachineSlot(blockEntity, handler, 0, 34, 40));
+            this.addSlot(new OrderOfTheSpaceMachineSlot(blockEntity, handler, 1, 57, 18));
+            this.addSlot(new OrderOfTheSpaceMachineSlot(blockEntity, handler, 2, 103, 18));
+            this.addSlot(new ModResultSlot(blockEntity, handler, 3, 80, 60));
         });
 
         addDataSlots(data);
     }
 
+    @Override
+    public void setData(int pId, int pData) {
+        super.setData(pId, pData);
+        if (pId == 0 || pId == 2 || pId == 3) {
+            checkpointTime = level.getGameTime();
+        }
+    }
+
     public boolean isCrafting() {
-        return data.get(0) > 0;
+        return data.get(0) > 0 || data.get(2) > 0;
     }
 
-    public int getScaledProgress() {
-        int progress = this.data.get(0);
+    public int getScaledProgress(float partialTick) {
         int maxProgress = this.data.get(1);  // Max Progress
         int progressArrowSize = 26; // This is the height in pixels of your arrow
+        float progress = this.data.get(0) + (level.getGameTime() - checkpointTime + partialTick) * this.data.get(2);
 
-        return maxProgress != 0 && progress != 0 ? progress * progressArrowSize / maxProgress : 0;
+        return maxProgress != 0 && progress > 0 ? (int) (Math.min(progress, maxProgress) * progressArrowSize / maxProgress) : 0;
     }
 
     // CREDIT GOES TO: diesieben07 | https://github.com/diesieben07/SevenCommons
@@ -107,7 +115,7 @@ public class OrderOfTheSpaceMachineMenu extends AbstractContainerMenu {
     @Override
     public boolean stillValid(Player pPlayer) {
         return stillValid(ContainerLevelAccess.create(level, blockEntity.getBlockPos()),
-                pPlayer, ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get());
+                pPlayer, blockEntity.getBlockState().getBlock());
     }
 
     private void addPlayerInventory(Inventory playerInventory) {
@@ -0,0 +1,22 @@
+package com.fairy.one.block.menu;
+
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.SlotItemHandler;
+
+// Menus grow and shrink the stack in a slot in place, merging on shift-click for example, which the item
+// handler never hears about. The menu calls setChanged() after such changes, so the machine is told here.
+public class OrderOfTheSpaceMachineSlot extends SlotItemHandler {
+    private final OrderOfTheSpaceMachineBlockEntity blockEntity;
+
+    public OrderOfTheSpaceMachineSlot(OrderOfTheSpaceMachineBlockEntity blockEntity, IItemHandler itemHandler, int index, int x, int y) {
+        super(itemHandler, index, x, y);
+        this.blockEntity = blockEntity;
+    }
+
+    @Override
+    public void setChanged() {
+        super.setChanged();
+        blockEntity.slotChanged();
+    }
+}
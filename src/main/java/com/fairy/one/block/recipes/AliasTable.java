@@ -0,0 +1,70 @@
+package com.fairy.one.block.recipes;
+
+import java.util.Random;
+
+// Walker's alias method: after building the table from the weights once, drawing an index costs one
+// random number whatever the number of entries. Each column keeps its own index with the chance in
+// probability and falls through to alias otherwise.
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(int[] weights) {
+        int size = weights.length;
+        this.probability = new double[size];
+        this.alias = new int[size];
+
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+
+        // Weights scaled so the average column is exactly 1
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) weights[i] * size / total;
+            if (scaled[i] < 1.0D) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] -= 1.0D - scaled[less];
+            if (scaled[more] < 1.0D) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // What is left is full up to rounding errors
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0D;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0D;
+        }
+    }
+
+    public int sample(Random random) {
+        if (probability.length == 1) {
+            return 0;
+        }
+        double draw = random.nextDouble() * probability.length;
+        int column = Math.min((int) draw, probability.length - 1);
+        return draw - column < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
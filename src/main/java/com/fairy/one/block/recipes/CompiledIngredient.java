@@ -0,0 +1,40 @@
+package com.fairy.one.block.recipes;
+
+import net.minecraft.core.Registry;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.util.BitSet;
+
+// An ingredient turned into a bitset over item registry ids, so testing a stack is a single bit lookup.
+// Only ingredients that look at more than the item (NBT ingredients and the like) still run their own
+// test, after the bit has matched. Built with the recipe index, once tags are bound after a reload.
+public class CompiledIngredient {
+    private final Ingredient ingredient;
+    private final BitSet items = new BitSet();
+    private final boolean testStack;
+
+    public CompiledIngredient(Ingredient ingredient) {
+        this.ingredient = ingredient;
+        ItemStack[] stacks = ingredient.getItems();
+        for (ItemStack stack : stacks) {
+            items.set(Registry.ITEM.getId(stack.getItem()));
+        }
+        // Ingredients that can't list their items are tested directly
+        this.testStack = !ingredient.isSimple() || stacks.length == 0;
+    }
+
+    public boolean test(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return false;
+        }
+        if (!items.isEmpty() && !items.get(Registry.ITEM.getId(stack.getItem()))) {
+            return false;
+        }
+        return !testStack || ingredient.test(stack);
+    }
+
+    public BitSet getItems() {
+        return items;
+    }
+}
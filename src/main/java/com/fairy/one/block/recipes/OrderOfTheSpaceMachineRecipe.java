@@ -2,7 +2,9 @@ package com.fairy.one.block.recipes;
 
 import com.fairy.one.One;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import net.minecraft.core.NonNullList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -11,23 +13,108 @@ import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.*;
 import net.minecraft.world.level.Level;
+import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Random;
 
+// Ingredients are given per machine slot: the input, the second input and the catalyst. Inputs are
+// consumed by their count on every craft, the catalyst only loses durability. Every craft makes one of
+// the outputs, picked by weight.
 public class OrderOfTheSpaceMachineRecipe implements Recipe<SimpleContainer> {
+    public static final int SLOTS = 3;
+    public static final int CATALYST_SLOT = 2;
+    public static final int DEFAULT_PROCESSING_TIME = 72;
+
     private final ResourceLocation id;
-    private final ItemStack output;
+    private final NonNullList<ItemStack> outputs;
+    private final int[] weights;
+    private final int totalWeight;
+    private final AliasTable outputTable;
     private final NonNullList<Ingredient> recipeItems;
+    private final int[] counts;
+    private final int processingTime;
+    private CompiledIngredient[] compiled;
 
     public OrderOfTheSpaceMachineRecipe(ResourceLocation id, ItemStack output, NonNullList<Ingredient> recipeItems) {
+        this(id, output, recipeItems, defaultCounts(recipeItems.size()), DEFAULT_PROCESSING_TIME);
+    }
+
+    public OrderOfTheSpaceMachineRecipe(ResourceLocation id, ItemStack output, NonNullList<Ingredient> recipeItems,
+                                        int[] counts, int processingTime) {
+        this(id, NonNullList.of(ItemStack.EMPTY, output), new int[] {1}, recipeItems, counts, processingTime);
+    }
+
+    public OrderOfTheSpaceMachineRecipe(ResourceLocation id, NonNullList<ItemStack> outputs, int[] weights,
+                                        NonNullList<Ingredient> recipeItems, int[] counts, int processingTime) {
         this.id = id;
-        this.output = output;
+        this.outputs = outputs;
+        this.weights = weights;
+        this.totalWeight = Arrays.stream(weights).sum();
+        this.outputTable = new AliasTable(weights);
         this.recipeItems = recipeItems;
+        this.counts = counts;
+        this.processingTime = processingTime;
+    }
+
+    private static int[] defaultCounts(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
     }
 
     @Override
     public boolean matches(SimpleContainer pContainer, Level pLevel) {
-        return recipeItems.get(0).test(pContainer.getItem(0));
+        for (int slot = 0; slot < recipeItems.size(); slot++) {
+            if (!matches(slot, pContainer.getItem(slot))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matches(IItemHandler handler) {
+        for (int slot = 0; slot < recipeItems.size(); slot++) {
+            if (!matches(slot, handler.getStackInSlot(slot))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Enough for at least one craft
+    private boolean matches(int slot, ItemStack stack) {
+        if (recipeItems.get(slot).isEmpty()) {
+            return true;
+        }
+        return getCompiled()[slot].test(stack) && (slot == CATALYST_SLOT || stack.getCount() >= counts[slot]);
+    }
+
+    // Compiled on first use, which happens when the recipe index is built after tags are bound
+    public CompiledIngredient[] getCompiled() {
+        CompiledIngredient[] result = compiled;
+        if (result == null) {
+            result = new CompiledIngredient[recipeItems.size()];
+            for (int slot = 0; slot < result.length; slot++) {
+                result[slot] = new CompiledIngredient(recipeItems.get(slot));
+            }
+            compiled = result;
+        }
+        return result;
+    }
+
+    public boolean hasIngredient(int slot) {
+        return slot < recipeItems.size() && !recipeItems.get(slot).isEmpty();
+    }
+
+    // How many items of the slot one craft uses
+    public int getCount(int slot) {
+        return hasIngredient(slot) ? counts[slot] : 0;
+    }
+
+    public int getProcessingTime() {
+        return processingTime;
     }
 
     @Override
@@ -37,7 +124,7 @@ public class OrderOfTheSpaceMachineRecipe implements Recipe<SimpleContainer> {
 
     @Override
     public ItemStack assemble(SimpleContainer pContainer) {
-        return output;
+        return getOutput();
     }
 
     @Override
@@ -47,7 +134,34 @@ public class OrderOfTheSpaceMachineRecipe implements Recipe<SimpleContainer> {
 
     @Override
     public ItemStack getResultItem() {
-        return output.copy();
+        return getOutput().copy();
+    }
+
+    // The first output, shared stack, don't modify it. Use getResultItem() when a copy is needed.
+    public ItemStack getOutput() {
+        return outputs.get(0);
+    }
+
+    // Shared stacks, don't modify them
+    public NonNullList<ItemStack> getOutputs() {
+        return outputs;
+    }
+
+    public ItemStack getOutput(int index) {
+        return outputs.get(index);
+    }
+
+    public int getWeight(int index) {
+        return weights[index];
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    // Index of the output the next craft makes
+    public int drawOutput(Random random) {
+        return outputTable.sample(random);
     }
 
     @Override
@@ -76,39 +190,97 @@ public class OrderOfTheSpaceMachineRecipe implements Recipe<SimpleContainer> {
         public static final ResourceLocation ID =
                 new ResourceLocation(One.MOD_ID,"order_space");
 
+        // "ingredients" lists the input, second input and catalyst in that order, null skips a slot.
+        // Inputs may have a "count", and "processing_time" is in ticks. "output" is a stack, or a list
+        // of stacks with a "weight" each, of which every craft makes one.
         @Override
         public OrderOfTheSpaceMachineRecipe fromJson(ResourceLocation id, JsonObject json) {
-            ItemStack output = ShapedRecipe.itemStackFromJson(GsonHelper.getAsJsonObject(json, "output"));
+            JsonArray outputList = json.get("output") != null && json.get("output").isJsonArray()
+                    ? json.getAsJsonArray("output") : null;
+            NonNullList<ItemStack> outputs;
+            int[] weights;
+            if (outputList == null) {
+                outputs = NonNullList.of(ItemStack.EMPTY, ShapedRecipe.itemStackFromJson(GsonHelper.getAsJsonObject(json, "output")));
+                weights = new int[] {1};
+            } else {
+                if (outputList.isEmpty()) {
+                    throw new JsonParseException("order_space recipes need at least one output");
+                }
+                outputs = NonNullList.withSize(outputList.size(), ItemStack.EMPTY);
+                weights = new int[outputList.size()];
+                for (int i = 0; i < outputs.size(); i++) {
+                    JsonObject entry = GsonHelper.convertToJsonObject(outputList.get(i), "output");
+                    outputs.set(i, ShapedRecipe.itemStackFromJson(entry));
+                    weights[i] = GsonHelper.getAsInt(entry, "weight", 1);
+                    if (weights[i] < 1) {
+                        throw new JsonParseException("Output weight must be at least 1");
+                    }
+                }
+            }
 
             JsonArray ingredients = GsonHelper.getAsJsonArray(json, "ingredients");
-            NonNullList<Ingredient> inputs = NonNullList.withSize(1, Ingredient.EMPTY);
+            if (ingredients.isEmpty() || ingredients.size() > SLOTS) {
+                throw new JsonParseException("order_space recipes take 1 to " + SLOTS + " ingredients");
+            }
+            NonNullList<Ingredient> inputs = NonNullList.withSize(ingredients.size(), Ingredient.EMPTY);
+            int[] counts = new int[ingredients.size()];
 
             for (int i = 0; i < inputs.size(); i++) {
-                inputs.set(i, Ingredient.fromJson(ingredients.get(i)));
+                JsonElement element = ingredients.get(i);
+                if (element.isJsonNull()) {
+                    continue;
+                }
+                inputs.set(i, Ingredient.fromJson(element));
+                counts[i] = element.isJsonObject() ? GsonHelper.getAsInt(element.getAsJsonObject(), "count", 1) : 1;
+                if (counts[i] < 1) {
+                    throw new JsonParseException("Ingredient count must be at least 1");
+                }
+            }
+            if (inputs.get(0).isEmpty()) {
+                throw new JsonParseException("order_space recipes need an input in the first slot");
             }
 
-            return new OrderOfTheSpaceMachineRecipe(id, output, inputs);
+            int processingTime = GsonHelper.getAsInt(json, "processing_time", DEFAULT_PROCESSING_TIME);
+            if (processingTime < 1) {
+                throw new JsonParseException("processing_time must be at least 1");
+            }
+            return new OrderOfTheSpaceMachineRecipe(id, outputs, weights, inputs, counts, processingTime);
         }
 
+        // See OrderOfTheSpaceMachineRecipeCodec for the ingredient and output encoding
         @Override
         public OrderOfTheSpaceMachineRecipe fromNetwork(ResourceLocation id, FriendlyByteBuf buf) {
-            NonNullList<Ingredient> inputs = NonNullList.withSize(buf.readInt(), Ingredient.EMPTY);
+            NonNullList<Ingredient> inputs = NonNullList.withSize(buf.readVarInt(), Ingredient.EMPTY);
+            int[] counts = new int[inputs.size()];
 
             for (int i = 0; i < inputs.size(); i++) {
-                inputs.set(i, Ingredient.fromNetwork(buf));
+                inputs.set(i, OrderOfTheSpaceMachineRecipeCodec.readIngredient(buf));
+                counts[i] = buf.readVarInt();
             }
 
-            ItemStack output = buf.readItem();
-            return new OrderOfTheSpaceMachineRecipe(id, output, inputs);
+            NonNullList<ItemStack> outputs = NonNullList.withSize(buf.readVarInt(), ItemStack.EMPTY);
+            int[] weights = new int[outputs.size()];
+            for (int i = 0; i < outputs.size(); i++) {
+                outputs.set(i, OrderOfTheSpaceMachineRecipeCodec.readStack(buf));
+                weights[i] = buf.readVarInt();
+            }
+            int processingTime = buf.readVarInt();
+            return new OrderOfTheSpaceMachineRecipe(id, outputs, weights, inputs, counts, processingTime);
         }
 
         @Override
         public void toNetwork(FriendlyByteBuf buf, OrderOfTheSpaceMachineRecipe recipe) {
-            buf.writeInt(recipe.getIngredients().size());
-            for (Ingredient ing : recipe.getIngredients()) {
-                ing.toNetwork(buf);
+            buf.writeVarInt(recipe.getIngredients().size());
+            for (int i = 0; i < recipe.getIngredients().size(); i++) {
+                OrderOfTheSpaceMachineRecipeCodec.writeIngredient(buf, recipe.getIngredients().get(i));
+                buf.writeVarInt(recipe.counts[i]);
+            }
+            buf.writeVarInt(recipe.outputs.size());
+            for (int i = 0; i < recipe.outputs.size(); i++) {
+                OrderOfTheSpaceMachineRecipeCodec.writeStack(buf, recipe.outputs.get(i));
+                buf.writeVarInt(recipe.weights[i]);
             }
-            buf.writeItemStack(recipe.getResultItem(), false);
+            buf.writeVarInt(recipe.getProcessingTime());
         }
 
         @Override
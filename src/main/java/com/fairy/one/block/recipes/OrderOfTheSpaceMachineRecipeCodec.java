@@ -0,0 +1,132 @@
+package com.fairy.one.block.recipes;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.Registry;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeManager;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact network form of order_space recipes. Vanilla ingredients are sent as varint item registry ids,
+// and an ingredient already sent in the same packet is sent as a reference to it. All recipes of a sync
+// go through one buffer in order on both sides, so the table is kept per buffer and thread.
+public class OrderOfTheSpaceMachineRecipeCodec {
+    private static final int CUSTOM = 0;
+    private static final int INLINE = 1;
+    private static final int FIRST_REFERENCE = 2;
+
+    private static final ThreadLocal<Table> TABLE = new ThreadLocal<>();
+
+    private static volatile SyncSize lastSize;
+
+    private static class Table {
+        final WeakReference<FriendlyByteBuf> buf;
+        final Object2IntOpenHashMap<IntList> written = new Object2IntOpenHashMap<>();
+        final List<Ingredient> read = new ArrayList<>();
+        int references;
+
+        Table(FriendlyByteBuf buf) {
+            this.buf = new WeakReference<>(buf);
+        }
+    }
+
+    public record SyncSize(RecipeManager manager, int recipes, int bytes, int sharedIngredients) { }
+
+    private static Table table(FriendlyByteBuf buf) {
+        Table table = TABLE.get();
+        if (table == null || table.buf.get() != buf) {
+            table = new Table(buf);
+            TABLE.set(table);
+        }
+        return table;
+    }
+
+    public static void writeIngredient(FriendlyByteBuf buf, Ingredient ingredient) {
+        if (!ingredient.isVanilla()) {
+            buf.writeVarInt(CUSTOM);
+            ingredient.toNetwork(buf);
+            return;
+        }
+
+        // Vanilla ingredients only test the item, so the ids are all there is to send
+        ItemStack[] stacks = ingredient.getItems();
+        IntList ids = new IntArrayList(stacks.length);
+        for (ItemStack stack : stacks) {
+            ids.add(Registry.ITEM.getId(stack.getItem()));
+        }
+
+        Table table = table(buf);
+        int index = table.written.getOrDefault(ids, -1);
+        if (index >= 0) {
+            buf.writeVarInt(FIRST_REFERENCE + index);
+            table.references++;
+            return;
+        }
+        table.written.put(ids, table.written.size());
+        buf.writeVarInt(INLINE);
+        buf.writeVarInt(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            buf.writeVarInt(ids.getInt(i));
+        }
+    }
+
+    public static Ingredient readIngredient(FriendlyByteBuf buf) {
+        int kind = buf.readVarInt();
+        if (kind == CUSTOM) {
+            return Ingredient.fromNetwork(buf);
+        }
+
+        Table table = table(buf);
+        if (kind >= FIRST_REFERENCE) {
+            return table.read.get(kind - FIRST_REFERENCE);
+        }
+        Item[] items = new Item[buf.readVarInt()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = Registry.ITEM.byId(buf.readVarInt());
+        }
+        Ingredient ingredient = Ingredient.of(items);
+        table.read.add(ingredient);
+        return ingredient;
+    }
+
+    // The NBT is only written when the stack has some
+    public static void writeStack(FriendlyByteBuf buf, ItemStack stack) {
+        buf.writeVarInt(Registry.ITEM.getId(stack.getItem()));
+        buf.writeVarInt(stack.getCount());
+        buf.writeNbt(stack.getItem().getShareTag(stack));
+    }
+
+    public static ItemStack readStack(FriendlyByteBuf buf) {
+        ItemStack stack = new ItemStack(Registry.ITEM.byId(buf.readVarInt()), buf.readVarInt());
+        stack.readShareTag(buf.readNbt());
+        return stack;
+    }
+
+    // Size of the order_space part of a recipe sync, measured once per set of recipes
+    public static SyncSize measure(RecipeManager manager) {
+        SyncSize size = lastSize;
+        if (size != null && size.manager() == manager) {
+            return size;
+        }
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        List<OrderOfTheSpaceMachineRecipe> recipes = manager.getAllRecipesFor(OrderOfTheSpaceMachineRecipe.Type.INSTANCE);
+        for (OrderOfTheSpaceMachineRecipe recipe : recipes) {
+            OrderOfTheSpaceMachineRecipe.Serializer.INSTANCE.toNetwork(buf, recipe);
+        }
+        size = new SyncSize(manager, recipes.size(), buf.writerIndex(), table(buf).references);
+        TABLE.remove();
+        buf.release();
+
+        lastSize = size;
+        return size;
+    }
+}
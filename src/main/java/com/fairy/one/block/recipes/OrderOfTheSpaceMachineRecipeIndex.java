@@ -0,0 +1,84 @@
+package com.fairy.one.block.recipes;
+
+import net.minecraft.core.Registry;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraftforge.items.IItemHandler;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lookup of order_space recipes by the item in the input slot, built once per RecipeManager
+// and thrown away on datapack reload.
+public class OrderOfTheSpaceMachineRecipeIndex {
+    private static volatile OrderOfTheSpaceMachineRecipeIndex current;
+
+    private final RecipeManager manager;
+    private final Map<Item, List<OrderOfTheSpaceMachineRecipe>> byInput = new IdentityHashMap<>();
+    // Recipes whose input can't be resolved to a list of items, always tested after the indexed ones
+    private final List<OrderOfTheSpaceMachineRecipe> unindexed = new ArrayList<>();
+    private volatile boolean stale;
+
+    private OrderOfTheSpaceMachineRecipeIndex(RecipeManager manager) {
+        this.manager = manager;
+
+        for (OrderOfTheSpaceMachineRecipe recipe : manager.getAllRecipesFor(OrderOfTheSpaceMachineRecipe.Type.INSTANCE)) {
+            // Compiling here keeps it off the first machine tick that uses the recipe
+            BitSet inputs = recipe.getCompiled()[0].getItems();
+            if (inputs.isEmpty()) {
+                unindexed.add(recipe);
+                continue;
+            }
+
+            for (int id = inputs.nextSetBit(0); id >= 0; id = inputs.nextSetBit(id + 1)) {
+                byInput.computeIfAbsent(Registry.ITEM.byId(id), item -> new ArrayList<>()).add(recipe);
+            }
+        }
+    }
+
+    public static OrderOfTheSpaceMachineRecipeIndex of(RecipeManager manager) {
+        OrderOfTheSpaceMachineRecipeIndex index = current;
+        if (index == null || index.manager != manager || index.stale) {
+            index = new OrderOfTheSpaceMachineRecipeIndex(manager);
+            current = index;
+        }
+        return index;
+    }
+
+    public static void invalidateAll() {
+        OrderOfTheSpaceMachineRecipeIndex index = current;
+        if (index != null) {
+            index.stale = true;
+        }
+        current = null;
+    }
+
+    public boolean isValidFor(RecipeManager manager) {
+        return !stale && this.manager == manager;
+    }
+
+    @Nullable
+    public OrderOfTheSpaceMachineRecipe find(IItemHandler handler) {
+        List<OrderOfTheSpaceMachineRecipe> candidates = byInput.get(handler.getStackInSlot(0).getItem());
+        if (candidates != null) {
+            for (int i = 0; i < candidates.size(); i++) {
+                OrderOfTheSpaceMachineRecipe recipe = candidates.get(i);
+                if (recipe.matches(handler)) {
+                    return recipe;
+                }
+            }
+        }
+
+        for (int i = 0; i < unindexed.size(); i++) {
+            OrderOfTheSpaceMachineRecipe recipe = unindexed.get(i);
+            if (recipe.matches(handler)) {
+                return recipe;
+            }
+        }
+        return null;
+    }
+}
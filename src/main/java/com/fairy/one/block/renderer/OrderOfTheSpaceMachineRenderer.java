@@ -0,0 +1,69 @@
+package com.fairy.one.block.renderer;
+
+import com.fairy.one.block.custom.OrderOfTheSpaceMachineBlock;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineBlockEntity;
+import com.fairy.one.config.OneClientConfigs;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.math.Vector3f;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.model.ItemTransforms;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderDispatcher;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+// Draws the item a machine is processing on top of it, spinning while the machine works.
+// Vanilla already skips block entities outside the frustum (see getRenderBoundingBox) and past
+// getViewDistance(), and all machines share the item render types of the frame's buffer source.
+@OnlyIn(Dist.CLIENT)
+public class OrderOfTheSpaceMachineRenderer implements BlockEntityRenderer<OrderOfTheSpaceMachineBlockEntity> {
+    private final BlockEntityRenderDispatcher dispatcher;
+
+    public OrderOfTheSpaceMachineRenderer(BlockEntityRendererProvider.Context pContext) {
+        this.dispatcher = pContext.getBlockEntityRenderDispatcher();
+    }
+
+    @Override
+    public void render(OrderOfTheSpaceMachineBlockEntity pBlockEntity, float pPartialTick, PoseStack pPoseStack, MultiBufferSource pBufferSource, int pPackedLight, int pPackedOverlay) {
+        ItemStack stack = pBlockEntity.getDisplayedItem();
+        Level level = pBlockEntity.getLevel();
+        if (stack.isEmpty() || level == null) {
+            return;
+        }
+
+        // The item sits above the machine, a full block there hides it completely
+        BlockPos above = pBlockEntity.getBlockPos().above();
+        if (level.getBlockState(above).isSolidRender(level, above)) {
+            return;
+        }
+
+        double animationDistance = OneClientConfigs.MACHINE_ANIMATION_DISTANCE.get();
+        boolean animate = pBlockEntity.getBlockState().getValue(OrderOfTheSpaceMachineBlock.ACTIVE)
+                && Vec3.atCenterOf(pBlockEntity.getBlockPos()).distanceToSqr(dispatcher.camera.getPosition()) < animationDistance * animationDistance;
+
+        pPoseStack.pushPose();
+        pPoseStack.translate(0.5D, 1.0D, 0.5D);
+        if (animate) {
+            float time = level.getGameTime() + pPartialTick;
+            pPoseStack.translate(0.0D, Mth.sin(time / 10.0F) * 0.05F, 0.0D);
+            pPoseStack.mulPose(Vector3f.YP.rotationDegrees(time * 4.0F));
+        }
+        pPoseStack.scale(0.5F, 0.5F, 0.5F);
+        Minecraft.getInstance().getItemRenderer().renderStatic(stack, ItemTransforms.TransformType.FIXED,
+                LevelRenderer.getLightColor(level, above), pPackedOverlay, pPoseStack, pBufferSource, (int) pBlockEntity.getBlockPos().asLong());
+        pPoseStack.popPose();
+    }
+
+    @Override
+    public int getViewDistance() {
+        return OneClientConfigs.MACHINE_RENDER_DISTANCE.get();
+    }
+}
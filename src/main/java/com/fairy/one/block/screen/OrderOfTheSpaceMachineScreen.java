@@ -29,7 +29,7 @@ public class OrderOfTheSpaceMachineScreen extends AbstractContainerScreen<OrderO
         this.blit(pPoseStack, x, y, 0, 0, imageWidth, imageHeight);
 
         if(menu.isCrafting()) {
-            blit(pPoseStack, x + 68, y + 27, 176, 0, 28, menu.getScaledProgress());
+            blit(pPoseStack, x + 68, y + 27, 176, 0, 28, menu.getScaledProgress(pPartialTick));
         }
     }
 
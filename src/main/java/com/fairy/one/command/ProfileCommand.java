@@ -0,0 +1,30 @@
+package com.fairy.one.command;
+
+import com.fairy.one.profiling.OneProfiler;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.TextComponent;
+
+// /one profile <seconds> [top]: samples the mod's hot paths and reports them when the time is up
+public class ProfileCommand {
+    public ProfileCommand(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("one").requires(source -> source.hasPermission(2))
+                .then(Commands.literal("profile")
+                        .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 600))
+                                .executes(context -> profile(context.getSource(), IntegerArgumentType.getInteger(context, "seconds"), 10))
+                                .then(Commands.argument("top", IntegerArgumentType.integer(0, 100))
+                                        .executes(context -> profile(context.getSource(), IntegerArgumentType.getInteger(context, "seconds"),
+                                                IntegerArgumentType.getInteger(context, "top")))))));
+    }
+
+    private int profile(CommandSourceStack source, int seconds, int top) {
+        if (!OneProfiler.start(source, seconds, top)) {
+            source.sendFailure(new TextComponent("A profile is already running"));
+            return 0;
+        }
+        source.sendSuccess(new TextComponent("Profiling for " + seconds + " seconds"), true);
+        return 1;
+    }
+}
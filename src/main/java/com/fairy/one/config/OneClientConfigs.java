@@ -0,0 +1,24 @@
+package com.fairy.one.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class OneClientConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.IntValue MACHINE_RENDER_DISTANCE;
+    public static final ForgeConfigSpec.IntValue MACHINE_ANIMATION_DISTANCE;
+
+    static {
+        BUILDER.push("Order Of The Space Machine");
+
+        MACHINE_RENDER_DISTANCE = BUILDER.comment("Distance in blocks up to which the item a machine is processing is drawn.",
+                        "Further away only the block model is shown.")
+                .defineInRange("Machine render distance", 32, 0, 256);
+        MACHINE_ANIMATION_DISTANCE = BUILDER.comment("Distance in blocks up to which working machines animate the item they process.")
+                .defineInRange("Machine animation distance", 16, 0, 256);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
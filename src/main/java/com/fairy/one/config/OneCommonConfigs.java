@@ -0,0 +1,37 @@
+package com.fairy.one.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class OneCommonConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.IntValue MACHINE_TICK_BUDGET_MICROS;
+    public static final ForgeConfigSpec.DoubleValue MACHINE_TARGET_MSPT;
+    public static final ForgeConfigSpec.IntValue SPACE_ARRAY_MAX_SIZE;
+    public static final ForgeConfigSpec.IntValue MACHINE_ACTIVATIONS_PER_TICK;
+    public static final ForgeConfigSpec.BooleanValue MACHINE_AUTO_EJECT;
+
+    static {
+        BUILDER.push("Order Of The Space Machine");
+
+        MACHINE_TICK_BUDGET_MICROS = BUILDER.comment("Time in microseconds the space machines of a level may use per tick while the server is above the target MSPT.",
+                        "Machines that don't fit in the budget are ticked on a later tick.")
+                .defineInRange("Machine tick budget", 2000, 50, 50000);
+        MACHINE_TARGET_MSPT = BUILDER.comment("Average milliseconds per tick above which the machine tick budget is applied.")
+                .defineInRange("Machine target MSPT", 45.0, 1.0, 1000.0);
+        SPACE_ARRAY_MAX_SIZE = BUILDER.comment("Maximum number of adjacent machines that work together as one space array.",
+                        "The array shares the inventory of one machine and crafts for all of them at once. 1 disables arrays.",
+                        "An array makes at most 64 crafts per cycle, since the shared inventory holds one stack per slot.")
+                .defineInRange("Space array max size", 64, 1, 4096);
+        MACHINE_ACTIVATIONS_PER_TICK = BUILDER.comment("Number of newly loaded machines of a level that start working per tick, nearest to a player first.",
+                        "Machines waiting for their turn catch up on the ticks they missed once they start.")
+                .defineInRange("Machine activations per tick", 64, 1, Integer.MAX_VALUE);
+        MACHINE_AUTO_EJECT = BUILDER.comment("Whether machines push their results into the inventories next to them.",
+                        "Other machines and hoppers feeding the machine are left out.")
+                .define("Machine auto eject", true);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
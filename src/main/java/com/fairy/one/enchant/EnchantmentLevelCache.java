@@ -0,0 +1,79 @@
+package com.fairy.one.enchant;
+
+import com.fairy.one.One;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.item.enchantment.EnchantmentHelper;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Levels of the mod's enchantments on what each player holds and wears, so checks don't read the stack's
+// enchantment tags again. Players compare their equipment with the last tick's every tick, and the
+// change event that follows covers swapped, moved and re-enchanted stacks alike. Server players only.
+@Mod.EventBusSubscriber(modid = One.MOD_ID)
+public class EnchantmentLevelCache {
+    // Enchantments with a cached level, by index
+    private static final List<RegistryObject<Enchantment>> TRACKED = List.of(ModEnchantments.SPACE_ORDER);
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+
+    private static final Map<UUID, Levels> LEVELS = new HashMap<>();
+
+    // The stacks the levels were read from, a stack swapped in since the last equipment check is read again
+    private static class Levels {
+        final int[] levels = new int[SLOTS.length * TRACKED.size()];
+        final ItemStack[] stacks = new ItemStack[SLOTS.length];
+    }
+
+    // -1 for an enchantment that isn't cached
+    public static int indexOf(Enchantment enchantment) {
+        for (int i = 0; i < TRACKED.size(); i++) {
+            if (TRACKED.get(i).get() == enchantment) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int getLevel(Player player, EquipmentSlot slot, int index) {
+        Levels levels = LEVELS.computeIfAbsent(player.getUUID(), uuid -> new Levels());
+        ItemStack stack = player.getItemBySlot(slot);
+        if (levels.stacks[slot.ordinal()] != stack) {
+            update(levels, slot, stack);
+        }
+        return levels.levels[slot.ordinal() * TRACKED.size() + index];
+    }
+
+    private static void update(Levels levels, EquipmentSlot slot, ItemStack stack) {
+        levels.stacks[slot.ordinal()] = stack;
+        for (int i = 0; i < TRACKED.size(); i++) {
+            levels.levels[slot.ordinal() * TRACKED.size() + i] = stack.isEmpty() ? 0
+                    : EnchantmentHelper.getItemEnchantmentLevel(TRACKED.get(i).get(), stack);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        if (event.getEntityLiving() instanceof Player player && !player.level.isClientSide()) {
+            Levels levels = LEVELS.get(player.getUUID());
+            // Also catches enchantments changed on the same stack, which keeps its identity
+            if (levels != null) {
+                update(levels, event.getSlot(), player.getItemBySlot(event.getSlot()));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        LEVELS.remove(event.getPlayer().getUUID());
+    }
+}
@@ -1,6 +1,8 @@
 package com.fairy.one.entity;
 
 import com.fairy.one.item.ModItems;
+import com.fairy.one.profiling.OneJfrEvents;
+import com.fairy.one.profiling.OneProfiler;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.eventbus.api.Event;
@@ -22,9 +24,20 @@ import javax.annotation.Nullable;
 public class WhenEntityDies {
     @SubscribeEvent
     public static void onEntityDeath(LivingDeathEvent event) {
+        OneJfrEvents.EntityDeathHandler jfrEvent = new OneJfrEvents.EntityDeathHandler();
+        jfrEvent.begin();
+        long start = OneProfiler.enabled ? System.nanoTime() : 0L;
         if (event != null && event.getEntity() != null) {
             execute(event, event.getEntity().level, event.getEntity().getX(), event.getEntity().getY(), event.getEntity().getZ(), event.getEntity());
         }
+        if (OneProfiler.enabled) {
+            OneProfiler.entityDeath(System.nanoTime() - start);
+        }
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit() && event != null && event.getEntity() != null) {
+            jfrEvent.entityType = String.valueOf(event.getEntity().getType().getRegistryName());
+            jfrEvent.commit();
+        }
     }
 
     public static void execute(LevelAccessor world, double x, double y, double z, Entity entity) {
@@ -0,0 +1,79 @@
+package com.fairy.one.event;
+
+import com.fairy.one.One;
+import com.fairy.one.block.entity.OrderOfTheSpaceMachineManager;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipeCodec;
+import com.fairy.one.block.recipes.OrderOfTheSpaceMachineRecipeIndex;
+import com.fairy.one.command.ProfileCommand;
+import com.fairy.one.profiling.OneProfiler;
+import com.mojang.logging.LogUtils;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.event.OnDatapackSyncEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.server.ServerLifecycleHooks;
+import org.slf4j.Logger;
+
+@Mod.EventBusSubscriber(modid = One.MOD_ID)
+public class ModEvents {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    @SubscribeEvent
+    public static void addReloadListeners(final AddReloadListenerEvent event) {
+        event.addListener((ResourceManagerReloadListener) resourceManager -> OrderOfTheSpaceMachineRecipeIndex.invalidateAll());
+    }
+
+    // Fired once the reloaded resources are in use, with no player for a /reload
+    @SubscribeEvent
+    public static void onDatapackSync(final OnDatapackSyncEvent event) {
+        // No player means the datapacks were reloaded, logins get the same recipes and aren't logged
+        if (event.getPlayer() == null) {
+            OrderOfTheSpaceMachineManager.wakeAll();
+
+            OrderOfTheSpaceMachineRecipeCodec.SyncSize size =
+                    OrderOfTheSpaceMachineRecipeCodec.measure(event.getPlayerList().getServer().getRecipeManager());
+            LOGGER.info("Syncing {} order_space recipes to all players: {} bytes, {} shared ingredients",
+                    size.recipes(), size.bytes(), size.sharedIngredients());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(final TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.world instanceof ServerLevel level) {
+            OrderOfTheSpaceMachineManager manager = OrderOfTheSpaceMachineManager.getIfPresent(level);
+            if (manager != null) {
+                manager.tick();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(final TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            OneProfiler.serverTick(ServerLifecycleHooks.getCurrentServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(final ServerStoppedEvent event) {
+        OneProfiler.stop();
+    }
+
+    @SubscribeEvent
+    public static void onCommandsRegister(final RegisterCommandsEvent event) {
+        new ProfileCommand(event.getDispatcher());
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(final WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            OrderOfTheSpaceMachineManager.unload(level);
+        }
+    }
+}
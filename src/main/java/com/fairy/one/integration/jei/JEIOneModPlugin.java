@@ -31,6 +31,7 @@ public class JEIOneModPlugin implements IModPlugin {
     @Override
     public void registerRecipeCatalysts(IRecipeCatalystRegistration registration) {
         registration.addRecipeCatalyst(new ItemStack(ModBlocks.ORDER_OF_THE_SPACE_MACHINE.get()), ModRecipes.ORDER_OF_THE_SPACE_MACHINE_RECIPE.getId());
+        registration.addRecipeCatalyst(new ItemStack(ModBlocks.SUPER_ORDER_OF_THE_SPACE_MACHINE.get()), ModRecipes.ORDER_OF_THE_SPACE_MACHINE_RECIPE.getId());
     }
 
     @Override
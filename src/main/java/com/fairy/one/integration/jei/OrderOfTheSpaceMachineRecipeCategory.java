@@ -11,20 +11,28 @@ import mezz.jei.api.helpers.IGuiHelper;
 import mezz.jei.api.recipe.IFocusGroup;
 import mezz.jei.api.recipe.RecipeIngredientRole;
 import mezz.jei.api.recipe.category.IRecipeCategory;
+import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraftforge.items.ItemHandlerHelper;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
 
 public class OrderOfTheSpaceMachineRecipeCategory implements IRecipeCategory<OrderOfTheSpaceMachineRecipe> {
     public final static ResourceLocation UID = new ResourceLocation(One.MOD_ID, "order_space");
     public final static ResourceLocation TEXTURE =
             new ResourceLocation(One.MOD_ID, "textures/gui/order_of_the_space_machine_gui.png");
 
+    // Same places as the machine's screen: input, second input, catalyst
+    private static final int[] SLOT_X = {34, 57, 103};
+    private static final int[] SLOT_Y = {40, 18, 18};
+
     private final IDrawable background;
     private final IDrawable icon;
 
@@ -49,11 +57,34 @@ public class OrderOfTheSpaceMachineRecipeCategory implements IRecipeCategory<Ord
 
     @Override
     public void setRecipe(@Nonnull IRecipeLayoutBuilder builder, @Nonnull OrderOfTheSpaceMachineRecipe recipe, @Nonnull IFocusGroup focusGroup) {
-        builder.addSlot(RecipeIngredientRole.INPUT, 34, 40).addIngredients(recipe.getIngredients().get(0));
-        builder.addSlot(RecipeIngredientRole.INPUT, 57, 18).addIngredients(recipe.getIngredients().get(0));
-        builder.addSlot(RecipeIngredientRole.INPUT, 103, 18).addIngredients(recipe.getIngredients().get(0));
+        for (int slot = 0; slot < OrderOfTheSpaceMachineRecipe.SLOTS; slot++) {
+            if (recipe.hasIngredient(slot)) {
+                int count = slot == OrderOfTheSpaceMachineRecipe.CATALYST_SLOT ? 1 : recipe.getCount(slot);
+                List<ItemStack> stacks = Arrays.stream(recipe.getIngredients().get(slot).getItems())
+                        .map(stack -> ItemHandlerHelper.copyStackWithSize(stack, count)).toList();
+                builder.addSlot(RecipeIngredientRole.INPUT, SLOT_X[slot], SLOT_Y[slot]).addItemStacks(stacks);
+            }
+        }
+
+        // Cycles through the outputs, each with its chance in the tooltip
+        builder.addSlot(RecipeIngredientRole.OUTPUT, 80, 60).addItemStacks(recipe.getOutputs())
+                .addTooltipCallback((slotView, tooltip) -> slotView.getDisplayedIngredient(VanillaTypes.ITEM_STACK)
+                        .ifPresent(stack -> addChance(recipe, stack, tooltip)));
+    }
 
-        builder.addSlot(RecipeIngredientRole.OUTPUT, 80, 60).addItemStack(recipe.getResultItem());
+    private static void addChance(OrderOfTheSpaceMachineRecipe recipe, ItemStack stack, List<Component> tooltip) {
+        if (recipe.getOutputs().size() < 2) {
+            return;
+        }
+        // The same stack may be listed more than once
+        int weight = 0;
+        for (int i = 0; i < recipe.getOutputs().size(); i++) {
+            if (ItemStack.matches(recipe.getOutput(i), stack)) {
+                weight += recipe.getWeight(i);
+            }
+        }
+        double chance = 100.0D * weight / recipe.getTotalWeight();
+        tooltip.add(new TextComponent(String.format("%.1f%% chance", chance)).withStyle(ChatFormatting.GRAY));
     }
 
     @Override
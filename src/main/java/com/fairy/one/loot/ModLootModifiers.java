@@ -0,0 +1,20 @@
+package com.fairy.one.loot;
+
+import com.fairy.one.One;
+import net.minecraftforge.common.loot.GlobalLootModifierSerializer;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModLootModifiers {
+    public static final DeferredRegister<GlobalLootModifierSerializer<?>> LOOT_MODIFIER_SERIALIZERS =
+            DeferredRegister.create(ForgeRegistries.Keys.LOOT_MODIFIER_SERIALIZERS, One.MOD_ID);
+
+    public static final RegistryObject<SpaceOrderLootModifier.Serializer> SPACE_ORDER_DROP =
+            LOOT_MODIFIER_SERIALIZERS.register("space_order_drop", SpaceOrderLootModifier.Serializer::new);
+
+    public static void register(IEventBus eventBus) {
+        LOOT_MODIFIER_SERIALIZERS.register(eventBus);
+    }
+}
@@ -0,0 +1,191 @@
+package com.fairy.one.loot;
+
+import com.fairy.one.enchant.EnchantmentLevelCache;
+import com.fairy.one.profiling.OneJfrEvents;
+import com.fairy.one.profiling.OneProfiler;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.item.enchantment.EnchantmentHelper;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.storage.loot.LootContext;
+import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
+import net.minecraft.world.level.storage.loot.predicates.LootItemCondition;
+import net.minecraft.world.level.storage.loot.predicates.LootItemConditions;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.common.loot.GlobalLootModifierSerializer;
+import net.minecraftforge.common.loot.IGlobalLootModifier;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Adds a chance for an extra drop when a given block or any block of a tag is broken, by default the
+// space drop from end stone mined with Space Order. Modifiers run for every loot table that is rolled,
+// so the block is checked before the conditions: other loot only costs a parameter read and a compare.
+public class SpaceOrderLootModifier implements IGlobalLootModifier {
+    private final LootItemCondition[] conditions;
+    private final Predicate<LootContext> combinedConditions;
+    @Nullable
+    private final Block block;
+    @Nullable
+    private final TagKey<Block> tag;
+    private final float chance;
+    private final Item item;
+    private final int count;
+    // Takes one of the broken block's own drop away for the extra one
+    private final boolean replace;
+    // Needed on the tool, read from the player's cached levels when it is their main hand item
+    @Nullable
+    private final Enchantment enchantment;
+    private final int enchantmentIndex;
+    // Checks answered from the cached levels, read by the tests
+    private static int cachedLevelReads;
+
+    public SpaceOrderLootModifier(LootItemCondition[] conditions, @Nullable Block block, @Nullable TagKey<Block> tag,
+                                  float chance, Item item, int count, boolean replace, @Nullable Enchantment enchantment) {
+        this.conditions = conditions;
+        this.combinedConditions = LootItemConditions.andConditions(conditions);
+        this.block = block;
+        this.tag = tag;
+        this.chance = chance;
+        this.item = item;
+        this.count = count;
+        this.replace = replace;
+        this.enchantment = enchantment;
+        this.enchantmentIndex = enchantment == null ? -1 : EnchantmentLevelCache.indexOf(enchantment);
+    }
+
+    public static int getCachedLevelReads() {
+        return cachedLevelReads;
+    }
+
+    private boolean hasEnchantment(LootContext context) {
+        if (enchantment == null) {
+            return true;
+        }
+        ItemStack tool = context.getParamOrNull(LootContextParams.TOOL);
+        if (tool == null) {
+            return false;
+        }
+        // Breaking a block hands the loot a copy of the main hand item, taken before mining damaged the held
+        // one, so the stacks are neither the same nor equal. Mining can't change enchantments, so a tool of
+        // the held item is taken to be that copy. A tool that broke leaves something else in the hand.
+        if (enchantmentIndex >= 0 && context.getParamOrNull(LootContextParams.THIS_ENTITY) instanceof Player player
+                && tool.getItem() == player.getMainHandItem().getItem()) {
+            cachedLevelReads++;
+            return EnchantmentLevelCache.getLevel(player, EquipmentSlot.MAINHAND, enchantmentIndex) > 0;
+        }
+        return EnchantmentHelper.getItemEnchantmentLevel(enchantment, tool) > 0;
+    }
+
+    @Nonnull
+    @Override
+    public List<ItemStack> apply(List<ItemStack> generatedLoot, LootContext context) {
+        BlockState state = context.getParamOrNull(LootContextParams.BLOCK_STATE);
+        if (state == null || (block != null ? state.getBlock() != block : !state.is(tag))) {
+            return generatedLoot;
+        }
+
+        OneJfrEvents.SpaceOrderLoot event = new OneJfrEvents.SpaceOrderLoot();
+        event.begin();
+        long start = OneProfiler.enabled ? System.nanoTime() : 0L;
+        boolean dropped = hasEnchantment(context) && combinedConditions.test(context) && context.getRandom().nextFloat() < chance;
+        if (dropped) {
+            if (replace) {
+                Item own = state.getBlock().asItem();
+                for (ItemStack stack : generatedLoot) {
+                    if (stack.is(own)) {
+                        stack.shrink(1);
+                        break;
+                    }
+                }
+                generatedLoot.removeIf(ItemStack::isEmpty);
+            }
+            generatedLoot.add(new ItemStack(item, count));
+        }
+        if (OneProfiler.enabled) {
+            OneProfiler.spaceOrderLoot(System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            Vec3 origin = context.getParamOrNull(LootContextParams.ORIGIN);
+            if (origin != null) {
+                event.setPos(new BlockPos(origin));
+            }
+            event.block = String.valueOf(state.getBlock().getRegistryName());
+            event.dropped = dropped;
+            event.commit();
+        }
+        return generatedLoot;
+    }
+
+    // "block" or "tag" picks the blocks, "chance" is per break, and "item" and "count" are the drop.
+    // "enchantment" is optional and has to be on the tool.
+    public static class Serializer extends GlobalLootModifierSerializer<SpaceOrderLootModifier> {
+        @Override
+        public SpaceOrderLootModifier read(ResourceLocation location, JsonObject object, LootItemCondition[] conditions) {
+            Block block = null;
+            TagKey<Block> tag = null;
+            if (object.has("block")) {
+                ResourceLocation blockId = new ResourceLocation(GsonHelper.getAsString(object, "block"));
+                if (!ForgeRegistries.BLOCKS.containsKey(blockId)) {
+                    throw new JsonParseException("Unknown block '" + blockId + "'");
+                }
+                block = ForgeRegistries.BLOCKS.getValue(blockId);
+            } else {
+                tag = TagKey.create(Registry.BLOCK_REGISTRY, new ResourceLocation(GsonHelper.getAsString(object, "tag")));
+            }
+
+            float chance = GsonHelper.getAsFloat(object, "chance", 1.0F);
+            if (chance < 0.0F || chance > 1.0F) {
+                throw new JsonParseException("chance must be between 0 and 1");
+            }
+            Item item = GsonHelper.getAsItem(object, "item");
+            int count = GsonHelper.getAsInt(object, "count", 1);
+            if (count < 1) {
+                throw new JsonParseException("count must be at least 1");
+            }
+            Enchantment enchantment = null;
+            if (object.has("enchantment")) {
+                ResourceLocation enchantmentId = new ResourceLocation(GsonHelper.getAsString(object, "enchantment"));
+                if (!ForgeRegistries.ENCHANTMENTS.containsKey(enchantmentId)) {
+                    throw new JsonParseException("Unknown enchantment '" + enchantmentId + "'");
+                }
+                enchantment = ForgeRegistries.ENCHANTMENTS.getValue(enchantmentId);
+            }
+            return new SpaceOrderLootModifier(conditions, block, tag, chance, item, count,
+                    GsonHelper.getAsBoolean(object, "replace", false), enchantment);
+        }
+
+        @Override
+        public JsonObject write(SpaceOrderLootModifier instance) {
+            JsonObject object = makeConditions(instance.conditions);
+            if (instance.block != null) {
+                object.addProperty("block", String.valueOf(instance.block.getRegistryName()));
+            } else {
+                object.addProperty("tag", instance.tag.location().toString());
+            }
+            object.addProperty("chance", instance.chance);
+            object.addProperty("item", String.valueOf(instance.item.getRegistryName()));
+            object.addProperty("count", instance.count);
+            object.addProperty("replace", instance.replace);
+            if (instance.enchantment != null) {
+                object.addProperty("enchantment", String.valueOf(instance.enchantment.getRegistryName()));
+            }
+            return object;
+        }
+    }
+}
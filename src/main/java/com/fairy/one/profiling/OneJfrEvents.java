@@ -0,0 +1,114 @@
+package com.fairy.one.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import net.minecraft.core.BlockPos;
+
+// Flight Recorder events for the mod's hot paths, shown under "One" in JMC. They are all disabled by
+// default and only keep slow invocations, enable them with a .jfc settings file, for example
+// <event name="one.MachineTick"><setting name="enabled">true</setting><setting name="threshold">1 ms</setting></event>
+public class OneJfrEvents {
+    // Makes the events show up in recording settings before the first one is committed
+    public static void register() {
+        FlightRecorder.register(MachineTick.class);
+        FlightRecorder.register(RecipeLookup.class);
+        FlightRecorder.register(Craft.class);
+        FlightRecorder.register(InventorySerialization.class);
+        FlightRecorder.register(SpaceOrderLoot.class);
+        FlightRecorder.register(EntityDeathHandler.class);
+    }
+
+    public abstract static class PositionedEvent extends Event {
+        @Label("X")
+        int x;
+        @Label("Y")
+        int y;
+        @Label("Z")
+        int z;
+
+        public void setPos(BlockPos pos) {
+            x = pos.getX();
+            y = pos.getY();
+            z = pos.getZ();
+        }
+    }
+
+    @Name("one.MachineTick")
+    @Label("Space Machine Tick")
+    @Category({"One", "Space Machine"})
+    @Enabled(false)
+    @Threshold("500 us")
+    @StackTrace(false)
+    public static class MachineTick extends PositionedEvent {
+        @Label("Action")
+        @Description("0 sleep, 1 progress, 2 craft")
+        public byte action;
+    }
+
+    @Name("one.RecipeLookup")
+    @Label("Space Machine Recipe Lookup")
+    @Category({"One", "Space Machine"})
+    @Enabled(false)
+    @Threshold("100 us")
+    @StackTrace(false)
+    public static class RecipeLookup extends PositionedEvent {
+        @Label("Recipe")
+        public String recipe;
+        @Label("Cache Hit")
+        public boolean cacheHit;
+    }
+
+    @Name("one.Craft")
+    @Label("Space Machine Craft")
+    @Category({"One", "Space Machine"})
+    @Enabled(false)
+    @Threshold("100 us")
+    @StackTrace(false)
+    public static class Craft extends PositionedEvent {
+        @Label("Recipe")
+        public String recipe;
+        @Label("Crafts")
+        public int crafts;
+    }
+
+    @Name("one.InventorySerialization")
+    @Label("Space Machine Inventory Serialization")
+    @Category({"One", "Space Machine"})
+    @Enabled(false)
+    @Threshold("100 us")
+    @StackTrace(false)
+    public static class InventorySerialization extends PositionedEvent {
+        @Label("Save")
+        @Description("True for saveAdditional, false for load")
+        public boolean save;
+    }
+
+    @Name("one.SpaceOrderLoot")
+    @Label("Space Order Loot Modifier")
+    @Category("One")
+    @Enabled(false)
+    @Threshold("100 us")
+    public static class SpaceOrderLoot extends PositionedEvent {
+        @Label("Block")
+        public String block;
+        @Label("Dropped")
+        public boolean dropped;
+    }
+
+    @Name("one.EntityDeathHandler")
+    @Label("Entity Death Handler")
+    @Category("One")
+    @Enabled(false)
+    @Threshold("100 us")
+    public static class EntityDeathHandler extends Event {
+        @Label("Entity Type")
+        public String entityType;
+    }
+}
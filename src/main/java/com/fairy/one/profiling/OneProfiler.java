@@ -0,0 +1,180 @@
+package com.fairy.one.profiling;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+// Counters behind /one profile. Everything is recorded on the server thread, and every hook is guarded
+// by the enabled flag so a server that isn't profiling only pays for reading one boolean.
+public class OneProfiler {
+    public static boolean enabled;
+
+    private static CommandSourceStack source;
+    private static int top;
+    private static int startTick;
+    private static int endTick;
+
+    private static long machineTicks;
+    private static long machineTickNanos;
+    // Machine positions by dimension, the same position can hold a machine in each of them
+    private static final Map<ResourceKey<Level>, Long2LongOpenHashMap> MACHINE_NANOS = new HashMap<>();
+    // setChanged() calls a machine left out because nothing that is saved changed
+    private static long skippedDirtyMarks;
+    private static final Map<ResourceKey<Level>, Long2LongOpenHashMap> MACHINE_SKIPPED_MARKS = new HashMap<>();
+    private static long hasRecipeCalls;
+    private static long craftItemCalls;
+    private static long crafts;
+    private static long recipeLookups;
+    private static long recipeCacheHits;
+    private static long spaceOrderLootCalls;
+    private static long spaceOrderLootNanos;
+    private static long entityDeathCalls;
+    private static long entityDeathNanos;
+
+    public static boolean start(CommandSourceStack source, int seconds, int top) {
+        if (enabled) {
+            return false;
+        }
+        reset();
+        OneProfiler.source = source;
+        OneProfiler.top = top;
+        startTick = source.getServer().getTickCount();
+        endTick = startTick + seconds * 20;
+        enabled = true;
+        return true;
+    }
+
+    public static void serverTick(MinecraftServer server) {
+        if (enabled && server.getTickCount() >= endTick) {
+            enabled = false;
+            report(server.getTickCount() - startTick);
+            source = null;
+        }
+    }
+
+    public static void stop() {
+        enabled = false;
+        source = null;
+        reset();
+    }
+
+    public static void machineTick(Level level, BlockPos pos, long nanos) {
+        machineTicks++;
+        machineTickNanos += nanos;
+        MACHINE_NANOS.computeIfAbsent(level.dimension(), dimension -> new Long2LongOpenHashMap()).addTo(pos.asLong(), nanos);
+    }
+
+    public static void skippedDirtyMark(Level level, BlockPos pos) {
+        skippedDirtyMarks++;
+        MACHINE_SKIPPED_MARKS.computeIfAbsent(level.dimension(), dimension -> new Long2LongOpenHashMap()).addTo(pos.asLong(), 1);
+    }
+
+    public static void hasRecipe() {
+        hasRecipeCalls++;
+    }
+
+    public static void craftItem(int count) {
+        craftItemCalls++;
+        crafts += count;
+    }
+
+    public static void recipeLookup(boolean cached) {
+        recipeLookups++;
+        if (cached) {
+            recipeCacheHits++;
+        }
+    }
+
+    // Only counts the loot rolled for the modifier's blocks, the check for every other block isn't timed
+    public static void spaceOrderLoot(long nanos) {
+        spaceOrderLootCalls++;
+        spaceOrderLootNanos += nanos;
+    }
+
+    public static void entityDeath(long nanos) {
+        entityDeathCalls++;
+        entityDeathNanos += nanos;
+    }
+
+    private static void reset() {
+        machineTicks = 0;
+        machineTickNanos = 0;
+        MACHINE_NANOS.clear();
+        skippedDirtyMarks = 0;
+        MACHINE_SKIPPED_MARKS.clear();
+        hasRecipeCalls = 0;
+        craftItemCalls = 0;
+        crafts = 0;
+        recipeLookups = 0;
+        recipeCacheHits = 0;
+        spaceOrderLootCalls = 0;
+        spaceOrderLootNanos = 0;
+        entityDeathCalls = 0;
+        entityDeathNanos = 0;
+    }
+
+    private static void report(int ticks) {
+        send("Profiled " + ticks + " ticks");
+        send("Machine ticks: " + machineTicks + ", " + micros(machineTickNanos) + " total, "
+                + micros(average(machineTickNanos, machineTicks)) + " each, "
+                + micros(average(machineTickNanos, ticks)) + " per server tick");
+        send("Skipped dirty marks: " + skippedDirtyMarks + ", " + String.format("%.1f", (double) skippedDirtyMarks / ticks)
+                + " per server tick");
+        send("hasRecipe: " + hasRecipeCalls + ", craftItem: " + craftItemCalls + " (" + crafts + " crafts)");
+        send("Recipe lookups: " + recipeLookups + ", cache hits: "
+                + (recipeLookups == 0 ? "-" : String.format("%.1f%%", 100.0 * recipeCacheHits / recipeLookups)));
+        send("SpaceOrderLootModifier: " + spaceOrderLootCalls + " calls, " + micros(spaceOrderLootNanos)
+                + " total, " + micros(average(spaceOrderLootNanos, spaceOrderLootCalls)) + " each");
+        send("WhenEntityDies.onEntityDeath: " + entityDeathCalls + " calls, " + micros(entityDeathNanos)
+                + " total, " + micros(average(entityDeathNanos, entityDeathCalls)) + " each");
+
+        send("Slowest machines:");
+        sendTop(MACHINE_NANOS, OneProfiler::micros);
+        send("Most skipped dirty marks:");
+        sendTop(MACHINE_SKIPPED_MARKS, String::valueOf);
+        MACHINE_NANOS.clear();
+        MACHINE_SKIPPED_MARKS.clear();
+    }
+
+    private static void sendTop(Map<ResourceKey<Level>, Long2LongOpenHashMap> values, LongFunction<String> format) {
+        List<MachineValue> machines = new ArrayList<>();
+        for (Map.Entry<ResourceKey<Level>, Long2LongOpenHashMap> dimension : values.entrySet()) {
+            for (Long2LongMap.Entry machine : dimension.getValue().long2LongEntrySet()) {
+                machines.add(new MachineValue(dimension.getKey(), machine.getLongKey(), machine.getLongValue()));
+            }
+        }
+        machines.sort((a, b) -> Long.compare(b.value(), a.value()));
+        for (int i = 0; i < Math.min(top, machines.size()); i++) {
+            MachineValue machine = machines.get(i);
+            BlockPos pos = BlockPos.of(machine.pos());
+            send((i + 1) + ". " + machine.dimension().location() + " " + pos.getX() + " " + pos.getY() + " " + pos.getZ()
+                    + ": " + format.apply(machine.value()));
+        }
+    }
+
+    private record MachineValue(ResourceKey<Level> dimension, long pos, long value) {
+    }
+
+    private static void send(String message) {
+        source.sendSuccess(new TextComponent(message), false);
+    }
+
+    private static long average(long total, long count) {
+        return count == 0 ? 0 : total / count;
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}